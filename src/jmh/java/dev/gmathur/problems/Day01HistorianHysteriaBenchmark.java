@@ -0,0 +1,35 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day01HistorianHysteria}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day01HistorianHysteriaBenchmark {
+    @Param({"src/main/resources/day1/input_d1_test.lst", "src/main/resources/day1/input_d1_historian_hysteria.lst"})
+    public String input;
+
+    private List<Day01HistorianHysteria.GroupLocation> parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day01HistorianHysteria.parse(input); }
+
+    @Benchmark
+    public List<Day01HistorianHysteria.GroupLocation> parse() { return Day01HistorianHysteria.parse(input); }
+
+    @Benchmark
+    public long part1() { return Day01HistorianHysteria.part1(parsed); }
+
+    @Benchmark
+    public long part2() { return Day01HistorianHysteria.part2(parsed); }
+}
@@ -0,0 +1,44 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the part 1 sort engines of {@link Day01HistorianHysteria}, on 10^6 to 10^8 rows of random five
+ * digit location ids, generated in memory so the large sizes don't need gigabyte input files.
+ * <p>
+ * The HEAP engine boxes every value and doesn't fit in the heap at 10^8 rows, so it is not in the default matrix. Run
+ * it with -Djmh.args="Day01SortEngineBenchmark -p engine=HEAP -p rows=1000000".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class Day01SortEngineBenchmark {
+    @Param({"1000000", "10000000", "100000000"})
+    public int rows;
+
+    @Param({"RADIX", "PARALLEL_SORT", "ADAPTIVE"})
+    public Day01HistorianHysteria.SortEngine engine;
+
+    private Day01HistorianHysteria.Columns columns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(2024);
+        final int[] left = new int[rows];
+        final int[] right = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            left[i] = random.nextInt(10000, 100000);
+            right[i] = random.nextInt(10000, 100000);
+        }
+        columns = new Day01HistorianHysteria.Columns(left, right);
+    }
+
+    @Benchmark
+    public long part1() { return Day01HistorianHysteria.part1(columns, engine); }
+}
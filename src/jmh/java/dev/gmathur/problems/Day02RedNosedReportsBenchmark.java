@@ -0,0 +1,34 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day02RedNosedReports}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day02RedNosedReportsBenchmark {
+    @Param({"src/main/resources/day2/input_d2_test.lst", "src/main/resources/day2/input_d2_red-nosed_reports.lst"})
+    public String input;
+
+    private Day02RedNosedReports.Reports parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day02RedNosedReports.parseReport(input); }
+
+    @Benchmark
+    public Day02RedNosedReports.Reports parse() { return Day02RedNosedReports.parseReport(input); }
+
+    @Benchmark
+    public int part1() { return Day02RedNosedReports.part1(parsed); }
+
+    @Benchmark
+    public int part2() { return Day02RedNosedReports.part2(parsed); }
+}
@@ -0,0 +1,44 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day03MullItOver}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial. The regex benchmark is the original solution, for comparison
+ * with the scanner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day03MullItOverBenchmark {
+    @Param({"src/main/resources/day3/input_d3_test.lst", "src/main/resources/day3/input_d3_mull_it_over.lst"})
+    public String input;
+
+    private ByteBuffer parsed;
+    private CharSequence text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parsed = Day03MullItOver.parse(input);
+        text = StandardCharsets.US_ASCII.decode(parsed.duplicate());
+    }
+
+    @Benchmark
+    public ByteBuffer parse() { return Day03MullItOver.parse(input); }
+
+    @Benchmark
+    public long regex() { return Day03MullItOver.regexSolver(text, false); }
+
+    @Benchmark
+    public long part1() { return Day03MullItOver.part1(parsed); }
+
+    @Benchmark
+    public long part2() { return Day03MullItOver.part2(parsed); }
+}
@@ -0,0 +1,50 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.utils.ExecutionStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the banded search of {@link Day04CeresSearch}, on a square grid of random X, M, A and S letters
+ * with a side of 20,000, generated in memory, searched in bands on one thread and on the fork-join pool.
+ * <p>
+ * The speed up is the SEQUENTIAL time over the FORK_JOIN time. To see how it scales with the cores, set the size of
+ * the common pool, e.g. -Djmh.args="Day04BandBenchmark -jvmArgsAppend
+ * -Djava.util.concurrent.ForkJoinPool.common.parallelism=4", for 1, 2, 4 and so on up to the cores of the machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class Day04BandBenchmark {
+    @Param({"20000"})
+    public int side;
+
+    @Param({"256"})
+    public int bandRows;
+
+    @Param({"SEQUENTIAL", "FORK_JOIN"})
+    public ExecutionStrategy strategy;
+
+    private byte[][] grid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(2024);
+        final byte[] letters = {'X', 'M', 'A', 'S'};
+        grid = new byte[side][side];
+        for (byte[] row : grid) {
+            for (int c = 0; c < side; c++) { row[c] = letters[random.nextInt(letters.length)]; }
+        }
+    }
+
+    @Benchmark
+    public long part1() { return Day04CeresSearch.countInBands(grid, "XMAS", false, bandRows, strategy); }
+
+    @Benchmark
+    public long part2() { return Day04CeresSearch.countInBands(grid, "MAS", true, bandRows, strategy); }
+}
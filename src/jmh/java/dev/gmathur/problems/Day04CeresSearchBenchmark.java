@@ -0,0 +1,34 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day04CeresSearch}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day04CeresSearchBenchmark {
+    @Param({"src/main/resources/day4/input_d4_test.lst", "src/main/resources/day4/input_d4.lst"})
+    public String input;
+
+    private byte[][] parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day04CeresSearch.parse(input); }
+
+    @Benchmark
+    public byte[][] parse() { return Day04CeresSearch.parse(input); }
+
+    @Benchmark
+    public int part1() { return Day04CeresSearch.part1(parsed); }
+
+    @Benchmark
+    public int part2() { return Day04CeresSearch.part2(parsed); }
+}
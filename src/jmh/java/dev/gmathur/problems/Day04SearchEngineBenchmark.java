@@ -0,0 +1,45 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the search engines of {@link Day04CeresSearch}, on square grids of random X, M, A and S letters
+ * with a side of 140, the puzzle's, and 10,000, generated in memory.
+ * <p>
+ * The PER_CELL engine takes seconds per search at 10,000, e.g.
+ * -Djmh.args="Day04SearchEngineBenchmark -p side=10000 -wi 1 -i 3".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class Day04SearchEngineBenchmark {
+    @Param({"140", "10000"})
+    public int side;
+
+    @Param({"PER_CELL", "BIT_PARALLEL", "AHO_CORASICK"})
+    public Day04CeresSearch.SearchEngine engine;
+
+    private byte[][] grid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(2024);
+        final byte[] letters = {'X', 'M', 'A', 'S'};
+        grid = new byte[side][side];
+        for (byte[] row : grid) {
+            for (int c = 0; c < side; c++) { row[c] = letters[random.nextInt(letters.length)]; }
+        }
+    }
+
+    @Benchmark
+    public int part1() { return Day04CeresSearch.part1(grid, engine); }
+
+    @Benchmark
+    public int part2() { return Day04CeresSearch.part2(grid, engine); }
+}
@@ -0,0 +1,58 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.utils.LetterMasks;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks counting many words at once in a 2,000 x 2,000 grid of random letters, with
+ * {@link Day04CeresSearch#countWords} against a {@link LetterMasks} search per word. The words are 3 to 8 random
+ * letters of the grid's alphabet, so the automaton's cost should stay about the same as the number of words grows,
+ * while the masks' grows with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day04WordCountBenchmark {
+    private static final String ALPHABET = "ABCDEFGH";
+    private static final int SIDE = 2_000;
+
+    @Param({"1", "10", "100", "500"})
+    public int words;
+
+    private byte[][] grid;
+    private List<String> targets;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(2024);
+        grid = new byte[SIDE][SIDE];
+        for (byte[] row : grid) {
+            for (int c = 0; c < SIDE; c++) { row[c] = (byte) ALPHABET.charAt(random.nextInt(ALPHABET.length())); }
+        }
+        targets = new ArrayList<>(words);
+        for (int i = 0; i < words; i++) {
+            final StringBuilder word = new StringBuilder();
+            for (int k = random.nextInt(3, 9); k > 0; k--) { word.append(ALPHABET.charAt(random.nextInt(8))); }
+            targets.add(word.toString());
+        }
+    }
+
+    @Benchmark
+    public long ahoCorasick() { return Day04CeresSearch.countWords(grid, targets)[0]; }
+
+    @Benchmark
+    public long letterMasks() {
+        final LetterMasks masks = new LetterMasks(grid, ALPHABET);
+        long total = 0;
+        for (String word : targets) { total += masks.count(word); }
+        return total;
+    }
+}
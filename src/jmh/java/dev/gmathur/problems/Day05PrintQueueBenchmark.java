@@ -0,0 +1,43 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.Util.AocResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day05PrintQueue}. Parsing and solving are measured separately. The part benchmarks
+ * run against an input that is parsed once per trial. The solve benchmarks read the file and answer both parts, from
+ * a single parse or streaming the updates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day05PrintQueueBenchmark {
+    @Param({"src/main/resources/day5/d5_test.input", "src/main/resources/day5/d5.input"})
+    public String input;
+
+    private Day05PrintQueue.SolutionInput parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day05PrintQueue.parse(input); }
+
+    @Benchmark
+    public Day05PrintQueue.SolutionInput parse() { return Day05PrintQueue.parse(input); }
+
+    @Benchmark
+    public int part1() { return Day05PrintQueue.part1(parsed); }
+
+    @Benchmark
+    public int part2() { return Day05PrintQueue.part2(parsed); }
+
+    @Benchmark
+    public AocResult<Integer, Integer> solve() { return new Day05PrintQueue().solve(input); }
+
+    @Benchmark
+    public AocResult<Integer, Integer> solveStreaming() { return Day05PrintQueue.solveStreaming(Input.open(input)); }
+}
@@ -0,0 +1,66 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.utils.ExecutionStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the reorder engines of {@link Day05PrintQueue}, on an input generated in memory with about 10^5
+ * rules and 10^6 updates. The rules totally order 448 pages, numbered up to 9999, and half of the updates are in
+ * order. The updates are checked and reordered by the execution strategy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class Day05ReorderBenchmark {
+    // 448 * 447 / 2 = 100,128 rules
+    private static final int PAGES = 448;
+
+    @Param({"1000000"})
+    public int updates;
+
+    @Param({"COMPARATOR_SORT", "TOPOLOGICAL", "MEDIAN_SELECTION"})
+    public Day05PrintQueue.ReorderEngine engine;
+
+    @Param({"SEQUENTIAL", "FORK_JOIN"})
+    public ExecutionStrategy strategy;
+
+    private Day05PrintQueue.SolutionInput input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(2024);
+        // Distinct page numbers, in the order of the rules
+        final int[] order = random.ints(10, 10_000).distinct().limit(PAGES).toArray();
+        final int rules = PAGES * (PAGES - 1) / 2;
+        final int[] before = new int[rules], after = new int[rules];
+        for (int i = 0, k = 0; i < PAGES; i++) {
+            for (int j = i + 1; j < PAGES; j++, k++) {
+                before[k] = order[i];
+                after[k] = order[j];
+            }
+        }
+
+        final int[][] pages = new int[updates][];
+        for (int u = 0; u < updates; u++) {
+            // An odd number of distinct pages, in order for the even updates
+            final int[] update = random.ints(0, PAGES).distinct().limit(5 + 2 * random.nextInt(10)).toArray();
+            if (u % 2 == 0) { Arrays.sort(update); }
+            for (int i = 0; i < update.length; i++) { update[i] = order[update[i]]; }
+            pages[u] = update;
+        }
+        input = new Day05PrintQueue.SolutionInput(new Day05PrintQueue.Rules(before, after, rules), pages);
+    }
+
+    @Benchmark
+    public int part1() { return Day05PrintQueue.part1(input); }
+
+    @Benchmark
+    public int part2() { return Day05PrintQueue.part2(input, engine, strategy); }
+}
@@ -0,0 +1,38 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.utils.ExecutionStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day06GuardGallivant}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial, and part 2 runs sequentially with every cycle engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day06GuardGallivantBenchmark {
+    @Param({"day6/d6_test.input", "day6/d6.input"})
+    public String input;
+
+    @Param({"STEP", "JUMP_TABLE"})
+    public Day06GuardGallivant.CycleEngine engine;
+
+    private Day06GuardGallivant.SolutionInput parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day06GuardGallivant.readFileFromResources(input); }
+
+    @Benchmark
+    public Day06GuardGallivant.SolutionInput parse() { return Day06GuardGallivant.readFileFromResources(input); }
+
+    @Benchmark
+    public int part1() { return Day06GuardGallivant.part1(parsed); }
+
+    @Benchmark
+    public int part2() { return Day06GuardGallivant.part2(parsed, ExecutionStrategy.SEQUENTIAL, engine); }
+}
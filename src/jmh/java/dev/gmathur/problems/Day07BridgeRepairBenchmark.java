@@ -0,0 +1,35 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day07BridgeRepair}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day07BridgeRepairBenchmark {
+    @Param({"day7/d7_test.input", "day7/d7.input"})
+    public String input;
+
+    private Day07BridgeRepair.SolutionInput parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day07BridgeRepair.readFileFromResources(input); }
+
+    @Benchmark
+    public Day07BridgeRepair.SolutionInput parse() { return Day07BridgeRepair.readFileFromResources(input); }
+
+    @Benchmark
+    public BigInteger part1() { return Day07BridgeRepair.part1(parsed); }
+
+    @Benchmark
+    public BigInteger part2() { return Day07BridgeRepair.part2(parsed); }
+}
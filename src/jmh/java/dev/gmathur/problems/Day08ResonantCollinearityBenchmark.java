@@ -0,0 +1,34 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day08ResonantCollinearity}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day08ResonantCollinearityBenchmark {
+    @Param({"day8/d8_test.input", "day8/d8.input"})
+    public String input;
+
+    private Day08ResonantCollinearity.SolutionInput parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day08ResonantCollinearity.readFileFromResources(input); }
+
+    @Benchmark
+    public Day08ResonantCollinearity.SolutionInput parse() { return Day08ResonantCollinearity.readFileFromResources(input); }
+
+    @Benchmark
+    public int part1() { return Day08ResonantCollinearity.part1(parsed); }
+
+    @Benchmark
+    public int part2() { return Day08ResonantCollinearity.part2(parsed); }
+}
@@ -0,0 +1,36 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day09DiskFragmenter}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per invocation because the solver mutates it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day09DiskFragmenterBenchmark {
+    @Param({"day9/d9_test.input", "day9/d9.input"})
+    public String input;
+
+    private Day09DiskFragmenter.SolutionInput parsed;
+
+    private final Day09DiskFragmenter solver = new Day09DiskFragmenter();
+
+    @Setup(Level.Invocation)
+    public void setUp() { parsed = solver.parse(input); }
+
+    @Benchmark
+    public Day09DiskFragmenter.SolutionInput parse() { return solver.parse(input); }
+
+    @Benchmark
+    public long part1() { return solver.part1(parsed); }
+
+    @Benchmark
+    public long part2() { return solver.part2(parsed); }
+}
@@ -0,0 +1,34 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day10HoofIt}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day10HoofItBenchmark {
+    @Param({"day10/d10_test.input", "day10/d10.input"})
+    public String input;
+
+    private Day10HoofIt.SolutionInput parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day10HoofIt.parse(input); }
+
+    @Benchmark
+    public Day10HoofIt.SolutionInput parse() { return Day10HoofIt.parse(input); }
+
+    @Benchmark
+    public int part1() { return Day10HoofIt.part1(parsed); }
+
+    @Benchmark
+    public int part2() { return Day10HoofIt.part2(parsed); }
+}
@@ -0,0 +1,34 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day11PlutonianPebbles}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day11PlutonianPebblesBenchmark {
+    @Param({"day11/d11_test.input", "day11/d11.input"})
+    public String input;
+
+    private Day11PlutonianPebbles.SolutionInput parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day11PlutonianPebbles.parse(input); }
+
+    @Benchmark
+    public Day11PlutonianPebbles.SolutionInput parse() { return Day11PlutonianPebbles.parse(input); }
+
+    @Benchmark
+    public long part1() { return Day11PlutonianPebbles.part1(parsed); }
+
+    @Benchmark
+    public long part2() { return Day11PlutonianPebbles.part2(parsed); }
+}
@@ -0,0 +1,34 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day12GardenGroups}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day12GardenGroupsBenchmark {
+    @Param({"day12/d12_test.input", "day12/d12.input"})
+    public String input;
+
+    private Day12GardenGroups.SolutionInput parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day12GardenGroups.parse(input); }
+
+    @Benchmark
+    public Day12GardenGroups.SolutionInput parse() { return Day12GardenGroups.parse(input); }
+
+    @Benchmark
+    public long part1() { return Day12GardenGroups.part1(parsed); }
+
+    @Benchmark
+    public long part2() { return Day12GardenGroups.part2(parsed); }
+}
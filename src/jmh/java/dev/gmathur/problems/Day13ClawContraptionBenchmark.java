@@ -0,0 +1,34 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day13ClawContraption}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day13ClawContraptionBenchmark {
+    @Param({"day13/d13_test.input", "day13/d13.input"})
+    public String input;
+
+    private Day13ClawContraption.SolutionInput parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day13ClawContraption.parse(input); }
+
+    @Benchmark
+    public Day13ClawContraption.SolutionInput parse() { return Day13ClawContraption.parse(input); }
+
+    @Benchmark
+    public double part1() { return Day13ClawContraption.part1(parsed); }
+
+    @Benchmark
+    public double part2() { return Day13ClawContraption.part2(parsed); }
+}
@@ -0,0 +1,46 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.utils.FrameRecorder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day14RestroomRedoubt}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per invocation because the solver mutates it. Part 2 is run without
+ * writing the candidate grids to disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day14RestroomRedoubtBenchmark {
+    @Param({"day14/d14_test.dat", "day14/d14.dat"})
+    public String input;
+
+    private Day14RestroomRedoubt.SolutionInput parsed;
+    private int gridXMax;
+    private int gridYMax;
+
+    @Setup(Level.Trial)
+    public void setUpGrid() {
+        // The test input is laid out on a smaller grid than the puzzle input
+        final boolean testInput = input.contains("test");
+        gridXMax = testInput ? 11 : 101;
+        gridYMax = testInput ? 7 : 103;
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() { parsed = Day14RestroomRedoubt.parse(input); }
+
+    @Benchmark
+    public Day14RestroomRedoubt.SolutionInput parse() { return Day14RestroomRedoubt.parse(input); }
+
+    @Benchmark
+    public int part1() { return Day14RestroomRedoubt.part1(parsed, gridXMax, gridYMax); }
+
+    @Benchmark
+    public int part2() { return Day14RestroomRedoubt.part2(parsed, gridXMax, gridYMax, FrameRecorder.DISABLED); }
+}
@@ -0,0 +1,36 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.utils.FrameRecorder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day15WarehouseWoes}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per invocation because the solver mutates it. Part 2 is run without
+ * writing the animation frames to disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day15WarehouseWoesBenchmark {
+    @Param({"day15/d15_test.dat", "day15/d15_test2.dat", "day15/d15.dat"})
+    public String input;
+
+    private Day15WarehouseWoes.SolutionInput parsed;
+
+    @Setup(Level.Invocation)
+    public void setUp() { parsed = Day15WarehouseWoes.parse(input); }
+
+    @Benchmark
+    public Day15WarehouseWoes.SolutionInput parse() { return Day15WarehouseWoes.parse(input); }
+
+    @Benchmark
+    public long part1() { return Day15WarehouseWoes.part1(parsed); }
+
+    @Benchmark
+    public long part2() { return Day15WarehouseWoes.part2(parsed, FrameRecorder.DISABLED); }
+}
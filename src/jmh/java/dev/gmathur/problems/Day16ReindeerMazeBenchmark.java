@@ -0,0 +1,34 @@
+package dev.gmathur.problems;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link Day16ReindeerMaze}. Parsing and solving are measured separately. The solve benchmarks
+ * run against an input that is parsed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Day16ReindeerMazeBenchmark {
+    @Param({"day16/d16_test1.dat", "day16/d16_test2.dat", "day16/d16.dat"})
+    public String input;
+
+    private Day16ReindeerMaze.SolutionInput parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() { parsed = Day16ReindeerMaze.parse(input); }
+
+    @Benchmark
+    public Day16ReindeerMaze.SolutionInput parse() { return Day16ReindeerMaze.parse(input); }
+
+    @Benchmark
+    public long part1() { return Day16ReindeerMaze.part1(parsed); }
+
+    @Benchmark
+    public long part2() { return Day16ReindeerMaze.part2(parsed, false); }
+}
@@ -0,0 +1,75 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.generators.InputGenerators;
+import dev.gmathur.utils.ExecutionStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * JMH benchmarks comparing the {@link ExecutionStrategy} of every day that has one, on generated inputs. The matrix is
+ * day x strategy x scale, and each benchmark solves both parts of the day's input, parsed once per trial. Day 6 only
+ * has a parallel part 2.
+ * <p>
+ * The default scale is the size of the puzzle input. Larger inputs show more of the parallel speed up, e.g.
+ * -Djmh.args="ExecutionStrategyBenchmark -p scale=10 -p day=6,12", but day 7 grows to minutes per run at 10x.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionStrategyBenchmark {
+    @Param({"2", "3", "6", "7", "10", "12", "13"})
+    public int day;
+
+    @Param({"SEQUENTIAL", "PARALLEL_STREAM", "FORK_JOIN", "VIRTUAL_THREADS"})
+    public ExecutionStrategy strategy;
+
+    @Param({"1"})
+    public int scale;
+
+    private ToLongFunction<ExecutionStrategy> solve;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final String file = InputGenerators.generate(day, scale, InputGenerators.DEFAULT_SEED).toString();
+        solve = switch (day) {
+            case 2 -> {
+                final var input = Day02RedNosedReports.parseReport(file);
+                yield s -> Day02RedNosedReports.part1(input, s) + Day02RedNosedReports.part2(input, s);
+            }
+            case 3 -> {
+                final var input = Day03MullItOver.parse(file);
+                yield s -> Day03MullItOver.part1(input, s) + Day03MullItOver.part2(input, s);
+            }
+            case 6 -> {
+                final var input = Day06GuardGallivant.readFileFromResources(file);
+                yield s -> Day06GuardGallivant.part2(input, s);
+            }
+            case 7 -> {
+                final var input = Day07BridgeRepair.readFileFromResources(file);
+                yield s -> Day07BridgeRepair.part1(input, s).longValue()
+                        + Day07BridgeRepair.part2(input, s).longValue();
+            }
+            case 10 -> {
+                final var input = Day10HoofIt.parse(file);
+                yield s -> Day10HoofIt.part1(input, s) + Day10HoofIt.part2(input, s);
+            }
+            case 12 -> {
+                final var input = Day12GardenGroups.parse(file);
+                yield s -> Day12GardenGroups.part1(input, s) + Day12GardenGroups.part2(input, s);
+            }
+            case 13 -> {
+                final var input = Day13ClawContraption.parse(file);
+                yield s -> (long) (Day13ClawContraption.part1(input, s) + Day13ClawContraption.part2(input, s));
+            }
+            default -> throw new IllegalArgumentException("Day " + day + " has no execution strategy");
+        };
+    }
+
+    @Benchmark
+    public long solve() { return solve.applyAsLong(strategy); }
+}
@@ -0,0 +1,74 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.generators.InputGenerators;
+import dev.gmathur.utils.InstructionScanner;
+import dev.gmathur.utils.InstructionSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput benchmark for scanning day 3's corrupted memory, in MB/s - the megabytes counter of the results. It
+ * compares the original regex, the hand-written {@link Day03MullItOver.Scanner} and an {@link InstructionScanner}
+ * compiled from the puzzle's opcodes plus extra opcodes that never match, to show that the scan's cost doesn't grow
+ * with the number of opcodes.
+ * <p>
+ * The memory is a generated day 3 input, about 18KB per unit of scale, e.g.
+ * -Djmh.args="InstructionScannerBenchmark -p scale=1000".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstructionScannerBenchmark {
+    public enum Engine { REGEX, DFA, INSTRUCTION_SET }
+
+    @Param({"REGEX", "DFA", "INSTRUCTION_SET"})
+    public Engine engine;
+
+    // The number of extra opcodes in the instruction set
+    @Param({"0", "64"})
+    public int extraOpcodes;
+
+    @Param({"100"})
+    public int scale;
+
+    private ByteBuffer memory;
+    private CharSequence text;
+    private InstructionScanner<Day03MullItOver.Totals> scanner;
+
+    /**
+     * The megabytes scanned, reported per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public double megabytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        memory = Day03MullItOver.parse(InputGenerators.generate(3, scale, InputGenerators.DEFAULT_SEED).toString());
+        text = StandardCharsets.US_ASCII.decode(memory.duplicate());
+        final InstructionSet<Day03MullItOver.Totals> set = Day03MullItOver.instructionSet();
+        for (int i = 0; i < extraOpcodes; i++) {
+            // Names that share a prefix with the puzzle's, but that the memory doesn't have
+            set.opcode("mu" + (char) ('a' + i % 26) + "q" + (char) ('a' + i / 26), 2, 3, (t, operands) -> t.all++);
+        }
+        scanner = set.compile();
+    }
+
+    @Benchmark
+    public long scan(final Counters counters) {
+        counters.megabytes += memory.remaining() / (1024.0 * 1024.0);
+        return switch (engine) {
+            case REGEX -> Day03MullItOver.regexSolver(text, false);
+            case DFA -> Day03MullItOver.part2(memory);
+            case INSTRUCTION_SET -> scanner.scan(memory, new Day03MullItOver.Totals()).enabledOnly;
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package dev.gmathur.generators;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a synthetic puzzle input for one day. The input is valid for that day's solver, and its size is the size
+ * of the real puzzle input times the scale. For grid based days the scale multiplies the area, so each side grows with
+ * the square root of the scale.
+ * <p>
+ * All randomness must come from the given random, so that a seed always produces the same input.
+ */
+@FunctionalInterface
+public interface InputGenerator {
+    void generate(SplittableRandom random, int scale, Writer out) throws IOException;
+}
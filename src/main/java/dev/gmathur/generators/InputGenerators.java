@@ -0,0 +1,440 @@
+package dev.gmathur.generators;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic input generators for every day, sized relative to the real puzzle inputs. See {@link InputGenerator}.
+ * <p>
+ * Usage: InputGenerators day scale [seed] [directory]
+ * <p>
+ * Generated inputs are written to target/generated-inputs by default (the aoc.generator.dir system property), and are
+ * reused if they already exist, since the same day, scale and seed always produce the same file.
+ */
+public final class InputGenerators {
+    public static final String DIR_PROPERTY = "aoc.generator.dir";
+    public static final long DEFAULT_SEED = 2024;
+
+    private static final Map<Integer, InputGenerator> GENERATORS = Map.ofEntries(
+            Map.entry(1, InputGenerators::day01),
+            Map.entry(2, InputGenerators::day02),
+            Map.entry(3, InputGenerators::day03),
+            Map.entry(4, InputGenerators::day04),
+            Map.entry(5, InputGenerators::day05),
+            Map.entry(6, InputGenerators::day06),
+            Map.entry(7, InputGenerators::day07),
+            Map.entry(8, InputGenerators::day08),
+            Map.entry(9, InputGenerators::day09),
+            Map.entry(10, InputGenerators::day10),
+            Map.entry(11, InputGenerators::day11),
+            Map.entry(12, InputGenerators::day12),
+            Map.entry(13, InputGenerators::day13),
+            Map.entry(14, InputGenerators::day14),
+            Map.entry(15, InputGenerators::day15),
+            Map.entry(16, InputGenerators::day16)
+    );
+
+    private InputGenerators() { }
+
+    public static boolean supports(final int day) { return GENERATORS.containsKey(day); }
+
+    public static InputGenerator forDay(final int day) {
+        final InputGenerator generator = GENERATORS.get(day);
+        if (generator == null) { throw new IllegalArgumentException("No input generator for day " + day); }
+        return generator;
+    }
+
+    /**
+     * Generate the input for the day at the given scale into the default directory, unless it's already there.
+     *
+     * @return The path of the generated input
+     */
+    public static Path generate(final int day, final int scale, final long seed) {
+        return generate(day, scale, seed, Path.of(System.getProperty(DIR_PROPERTY, "target/generated-inputs")));
+    }
+
+    public static Path generate(final int day, final int scale, final long seed, final Path directory) {
+        if (scale < 1) { throw new IllegalArgumentException("Scale must be at least 1, got " + scale); }
+        final Path path = directory.resolve(String.format("day%02d_x%d_seed%d.txt", day, scale, seed));
+        if (Files.isRegularFile(path)) { return path; }
+
+        try {
+            Files.createDirectories(directory);
+            // Write to a temporary file first, so that an interrupted run never leaves a partial input behind
+            final Path tmp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (Writer out = new BufferedWriter(Files.newBufferedWriter(tmp, StandardCharsets.US_ASCII), 1 << 16)) {
+                forDay(day).generate(new SplittableRandom(seed), scale, out);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return path;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error generating input: " + path, e);
+        }
+    }
+
+    // The side of a square grid with scale times the area of a base x base grid
+    static int side(final int base, final int scale) {
+        return (int) Math.round(base * Math.sqrt(scale));
+    }
+
+    private static int between(final SplittableRandom random, final int from, final int to) {
+        return random.nextInt(from, to + 1);
+    }
+
+    // Day 1: 1000 lines of two five digit location ids
+    private static void day01(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        for (int i = 0; i < 1000 * scale; i++) {
+            out.write(between(random, 10000, 99999) + "   " + between(random, 10000, 99999) + "\n");
+        }
+    }
+
+    // Day 2: 1000 reports of 5 to 8 levels. About half are monotonic with small steps, so both answers are non-trivial
+    private static void day02(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 1000 * scale; i++) {
+            final int levels = between(random, 5, 8);
+            final boolean smooth = random.nextBoolean();
+            final int sign = random.nextBoolean() ? 1 : -1;
+            int level = sign > 0 ? between(random, 1, 40) : between(random, 60, 99);
+            line.setLength(0);
+            for (int j = 0; j < levels; j++) {
+                if (j > 0) { line.append(' '); }
+                line.append(level);
+                level = smooth ? level + sign * between(random, 1, 3) : between(random, 1, 99);
+            }
+            out.write(line.append('\n').toString());
+        }
+    }
+
+    private static final String[] DAY03_NOISE = {
+            "who()", "what()", "why()", "where()", "from()", "select()", "how()", "mul(4*", "mul[3,7]", "mul ( 2 , 4 )",
+            "?(12,34)", "mul(1234,5)", "don't", "do", "!", "@", "#", "$", "%", "^", "&", "*", "(", ")", "[", "]", "{",
+            "}", "<", ">", "'", "~", " ", ",", ";", ":", "+", "-", "/"
+    };
+
+    // Day 3: about 18KB of corrupted memory in lines of 3000 characters
+    private static void day03(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final long target = 18_000L * scale;
+        final StringBuilder line = new StringBuilder();
+        long written = 0;
+        while (written < target) {
+            final int roll = random.nextInt(100);
+            if (roll < 12) {
+                line.append("mul(").append(between(random, 1, 999)).append(',').append(between(random, 1, 999))
+                        .append(')');
+            } else if (roll < 14) {
+                line.append("do()");
+            } else if (roll < 16) {
+                line.append("don't()");
+            } else {
+                line.append(DAY03_NOISE[random.nextInt(DAY03_NOISE.length)]);
+            }
+            if (line.length() >= 3000) {
+                written += line.length() + 1;
+                out.write(line.append('\n').toString());
+                line.setLength(0);
+            }
+        }
+        if (!line.isEmpty()) { out.write(line.append('\n').toString()); }
+    }
+
+    // Day 4: a 140 x 140 grid of X, M, A and S
+    private static void day04(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final char[] letters = {'X', 'M', 'A', 'S'};
+        final int n = side(140, scale);
+        final char[] row = new char[n + 1];
+        row[n] = '\n';
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) { row[c] = letters[random.nextInt(4)]; }
+            out.write(row);
+        }
+    }
+
+    // Day 5: ordering rules between every pair of 49 pages, which is a total order, and 200 updates
+    private static void day05(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final int[] pages = new int[89];
+        for (int i = 0; i < pages.length; i++) { pages[i] = 11 + i; }
+        shuffle(random, pages);
+        final int[] order = Arrays.copyOf(pages, 49);
+
+        final long[] rules = new long[order.length * (order.length - 1) / 2];
+        int k = 0;
+        for (int i = 0; i < order.length; i++) {
+            for (int j = i + 1; j < order.length; j++) { rules[k++] = (long) order[i] << 32 | order[j]; }
+        }
+        shuffle(random, rules);
+        for (long rule : rules) { out.write((rule >>> 32) + "|" + (int) rule + "\n"); }
+        out.write("\n");
+
+        final StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 200 * scale; i++) {
+            final int[] update = order.clone();
+            shuffle(random, update);
+            final int length = 5 + 2 * random.nextInt(10); // odd, so every update has a middle page
+            line.setLength(0);
+            for (int j = 0; j < length; j++) {
+                if (j > 0) { line.append(','); }
+                line.append(update[j]);
+            }
+            out.write(line.append('\n').toString());
+        }
+    }
+
+    // Day 6: a 130 x 130 lab with about 5% obstacles, and a guard whose walk leaves the lab
+    private static void day06(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final int n = side(130, scale);
+        final char[][] grid = new char[n][n];
+        int start;
+        do {
+            for (char[] row : grid) {
+                for (int c = 0; c < n; c++) { row[c] = random.nextInt(100) < 5 ? '#' : '.'; }
+            }
+            start = random.nextInt(n * n);
+        } while (grid[start / n][start % n] == '#' || !guardLeaves(grid, start / n, start % n));
+        grid[start / n][start % n] = '^';
+        writeGrid(grid, out);
+    }
+
+    private static boolean guardLeaves(final char[][] grid, int r, int c) {
+        final int n = grid.length;
+        final int[] dr = {-1, 0, 1, 0};
+        final int[] dc = {0, 1, 0, -1};
+        final BitSet seen = new BitSet(n * n * 4);
+        int d = 0;
+        while (true) {
+            final int state = (r * n + c) * 4 + d;
+            if (seen.get(state)) { return false; }
+            seen.set(state);
+            final int nr = r + dr[d];
+            final int nc = c + dc[d];
+            if (nr < 0 || nc < 0 || nr >= n || nc >= n) { return true; }
+            if (grid[nr][nc] == '#') { d = (d + 1) & 3; } else { r = nr; c = nc; }
+        }
+    }
+
+    // Day 7: 850 equations of 2 to 12 operands. Half of the targets are made from the operands, so they can be solved
+    private static void day07(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final BigInteger limit = BigInteger.TEN.pow(15);
+        final StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 850 * scale; i++) {
+            final int count = between(random, 2, 12);
+            final long[] operands = new long[count];
+            for (int j = 0; j < count; j++) { operands[j] = between(random, 1, random.nextInt(4) == 0 ? 999 : 99); }
+
+            BigInteger target = BigInteger.valueOf(operands[0]);
+            for (int j = 1; j < count; j++) {
+                final BigInteger operand = BigInteger.valueOf(operands[j]);
+                target = switch (random.nextInt(3)) {
+                    case 0 -> target.add(operand);
+                    case 1 -> target.multiply(operand);
+                    default -> new BigInteger(target.toString() + operands[j]);
+                };
+            }
+            if (random.nextBoolean() || target.compareTo(limit) >= 0) {
+                target = BigInteger.valueOf(random.nextLong(1, 1_000_000_000_000L));
+            }
+
+            line.setLength(0);
+            line.append(target).append(':');
+            for (long operand : operands) { line.append(' ').append(operand); }
+            out.write(line.append('\n').toString());
+        }
+    }
+
+    private static final String ANTENNAS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    // Day 8: a 50 x 50 map with about 4 antennas for each of the 62 frequencies per 50 x 50 area
+    private static void day08(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final int n = side(50, scale);
+        final char[][] grid = new char[n][n];
+        for (char[] row : grid) { Arrays.fill(row, '.'); }
+        for (int i = 0; i < 62 * 4 * scale; i++) {
+            grid[random.nextInt(n)][random.nextInt(n)] = ANTENNAS.charAt(random.nextInt(ANTENNAS.length()));
+        }
+        writeGrid(grid, out);
+    }
+
+    // Day 9: a disk map of 19999 digits, alternating file lengths (1 to 9) and free space lengths (0 to 9)
+    private static void day09(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final int length = 20_000 * scale - 1;
+        final char[] digits = new char[length + 1];
+        for (int i = 0; i < length; i++) {
+            digits[i] = (char) ('0' + (i % 2 == 0 ? between(random, 1, 9) : between(random, 0, 9)));
+        }
+        digits[length] = '\n';
+        out.write(digits);
+    }
+
+    // Day 10: a 59 x 59 topographic map of slopes, with some noise, so there are plenty of hiking trails
+    private static void day10(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final int n = side(59, scale);
+        final char[][] grid = new char[n][n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                grid[r][c] = (char) ('0' + (random.nextInt(5) == 0 ? random.nextInt(10) : (r + c) % 10));
+            }
+        }
+        writeGrid(grid, out);
+    }
+
+    // Day 11: a line of 8 stones
+    private static void day11(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 8 * scale; i++) {
+            if (i > 0) { line.append(' '); }
+            line.append(random.nextInt(4) == 0 ? random.nextInt(10) : random.nextInt(1_000_000));
+        }
+        out.write(line.append('\n').toString());
+    }
+
+    // Day 12: a 140 x 140 garden of 7 x 7 blocks of plants, with 3% of the plots planted with something else
+    private static void day12(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final int n = side(140, scale);
+        final int blocks = (n + 6) / 7;
+        final char[][] coarse = new char[blocks][blocks];
+        for (char[] row : coarse) {
+            for (int c = 0; c < blocks; c++) { row[c] = (char) ('A' + random.nextInt(26)); }
+        }
+        final char[][] grid = new char[n][n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                grid[r][c] = random.nextInt(100) < 3 ? (char) ('A' + random.nextInt(26)) : coarse[r / 7][c / 7];
+            }
+        }
+        writeGrid(grid, out);
+    }
+
+    // Day 13: 320 claw machines, half of which can be won
+    private static void day13(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        for (int i = 0; i < 320 * scale; i++) {
+            final int ax = between(random, 10, 99), ay = between(random, 10, 99);
+            final int bx = between(random, 10, 99), by = between(random, 10, 99);
+            final int a = between(random, 1, 100), b = between(random, 1, 100);
+            final boolean winnable = random.nextBoolean();
+            final int px = winnable ? a * ax + b * bx : between(random, 1000, 20000);
+            final int py = winnable ? a * ay + b * by : between(random, 1000, 20000);
+            if (i > 0) { out.write("\n"); }
+            out.write("Button A: X+" + ax + ", Y+" + ay + "\n");
+            out.write("Button B: X+" + bx + ", Y+" + by + "\n");
+            out.write("Prize: X=" + px + ", Y=" + py + "\n");
+        }
+    }
+
+    // Day 14: 500 robots in the 101 x 103 puzzle area
+    private static void day14(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        for (int i = 0; i < 500 * scale; i++) {
+            out.write("p=" + random.nextInt(101) + "," + random.nextInt(103) + " v=" + between(random, -99, 99) + ","
+                    + between(random, -99, 99) + "\n");
+        }
+    }
+
+    // Day 15: a 50 x 50 walled warehouse with boxes and some walls inside, then 20000 moves in lines of 1000
+    private static void day15(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final int n = side(50, scale);
+        final char[][] grid = new char[n][n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                final int roll = random.nextInt(100);
+                grid[r][c] = r == 0 || c == 0 || r == n - 1 || c == n - 1 || roll < 5 ? '#' : roll < 30 ? 'O' : '.';
+            }
+        }
+        grid[n / 2][n / 2] = '@';
+        writeGrid(grid, out);
+        out.write("\n");
+
+        final char[] moves = {'<', '>', '^', 'v'};
+        final char[] line = new char[1001];
+        line[1000] = '\n';
+        for (int i = 0; i < 20 * scale; i++) {
+            for (int j = 0; j < 1000; j++) { line[j] = moves[random.nextInt(4)]; }
+            out.write(line);
+        }
+    }
+
+    // Day 16: a 141 x 141 maze, carved as a perfect maze and then with 10% of the remaining inner walls knocked down
+    // so there are several shortest paths
+    private static void day16(final SplittableRandom random, final int scale, final Writer out) throws IOException {
+        final int n = side(141, scale) | 1; // odd, so the maze has walls on every side
+        final char[][] grid = new char[n][n];
+        for (char[] row : grid) { Arrays.fill(row, '#'); }
+
+        // Randomised depth first search over the cells at odd coordinates
+        final int[] dr = {-2, 0, 2, 0};
+        final int[] dc = {0, 2, 0, -2};
+        final ArrayDeque<int[]> stack = new ArrayDeque<>();
+        grid[n - 2][1] = '.';
+        stack.push(new int[]{n - 2, 1});
+        final int[] dirs = {0, 1, 2, 3};
+        while (!stack.isEmpty()) {
+            final int[] cell = stack.peek();
+            shuffle(random, dirs);
+            boolean carved = false;
+            for (int d : dirs) {
+                final int nr = cell[0] + dr[d], nc = cell[1] + dc[d];
+                if (nr > 0 && nc > 0 && nr < n - 1 && nc < n - 1 && grid[nr][nc] == '#') {
+                    grid[cell[0] + dr[d] / 2][cell[1] + dc[d] / 2] = '.';
+                    grid[nr][nc] = '.';
+                    stack.push(new int[]{nr, nc});
+                    carved = true;
+                    break;
+                }
+            }
+            if (!carved) { stack.pop(); }
+        }
+        for (int r = 1; r < n - 1; r++) {
+            for (int c = 1; c < n - 1; c++) {
+                if (grid[r][c] == '#' && (r + c) % 2 == 1 && random.nextInt(10) == 0) { grid[r][c] = '.'; }
+            }
+        }
+        grid[n - 2][1] = 'S';
+        grid[1][n - 2] = 'E';
+        writeGrid(grid, out);
+    }
+
+    private static void writeGrid(final char[][] grid, final Writer out) throws IOException {
+        for (char[] row : grid) {
+            out.write(row);
+            out.write('\n');
+        }
+    }
+
+    private static void shuffle(final SplittableRandom random, final int[] a) {
+        for (int i = a.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int t = a[i]; a[i] = a[j]; a[j] = t;
+        }
+    }
+
+    private static void shuffle(final SplittableRandom random, final long[] a) {
+        for (int i = a.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final long t = a[i]; a[i] = a[j]; a[j] = t;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: InputGenerators day scale [seed] [directory]");
+            System.exit(1);
+        }
+        final int day = Integer.parseInt(args[0]);
+        final int scale = Integer.parseInt(args[1]);
+        final long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        final Path path = args.length > 3
+                ? generate(day, scale, seed, Path.of(args[3]))
+                : generate(day, scale, seed);
+        System.out.println(path);
+    }
+}
@@ -0,0 +1,124 @@
+package dev.gmathur.generators;
+
+import dev.gmathur.problems.Solver;
+import dev.gmathur.problems.SolverRunner;
+import dev.gmathur.problems.SolverRunner.DayReport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the solvers on generated inputs of increasing size (1x, 10x, 100x and 1000x the real input by default) and
+ * reports how the parse, part 1 and part 2 times grow with the input. The growth is summarised as the slope of
+ * log(time) against log(input bytes), fitted by least squares - a slope of 1 is linear, and anything well above 1 is
+ * flagged as super-linear.
+ * <p>
+ * Usage: ScalingBenchmark [days], e.g. ScalingBenchmark 1,9,16. All days are run by default.
+ * <p>
+ * Configured through system properties -
+ * <ul>
+ *     <li>aoc.scaling.scales - the comma separated scales, default 1,10,100,1000</li>
+ *     <li>aoc.scaling.seed - the generator seed, default {@link InputGenerators#DEFAULT_SEED}</li>
+ *     <li>aoc.scaling.iterations - runs per scale, of which the fastest is reported, default 1</li>
+ *     <li>aoc.scaling.budget - seconds; once a scale takes longer than this the larger scales are skipped, default
+ *     60</li>
+ * </ul>
+ * Running out of memory also stops the escalation for that day, so give the JVM a large heap for the larger scales.
+ */
+public class ScalingBenchmark {
+    // Slopes above this are reported as super-linear. A little above 1 to allow for noise and cache effects.
+    static final double SUPER_LINEAR = 1.2;
+
+    public record Sample(int scale, long bytes, DayReport report) { }
+
+    /**
+     * @return The least squares slope of log(y) against log(x), or NaN if there are fewer than two points
+     */
+    static double slope(final double[] x, final double[] y) {
+        final int n = x.length;
+        if (n < 2) { return Double.NaN; }
+        double sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (int i = 0; i < n; i++) {
+            final double lx = Math.log(x[i]);
+            final double ly = Math.log(Math.max(y[i], 1));
+            sx += lx;
+            sy += ly;
+            sxx += lx * lx;
+            sxy += lx * ly;
+        }
+        return (n * sxy - sx * sy) / (n * sxx - sx * sx);
+    }
+
+    public static List<Sample> measure(final Solver<?, ?, ?> solver, final int[] scales, final long seed,
+                                       final int iterations, final long budgetNanos) {
+        final List<Sample> samples = new ArrayList<>();
+        // Warm up on the smallest input, so the first sample isn't mostly interpreter time
+        SolverRunner.run(solver, InputGenerators.generate(solver.day(), scales[0], seed).toString());
+
+        for (int scale : scales) {
+            try {
+                final Path path = InputGenerators.generate(solver.day(), scale, seed);
+                DayReport best = null;
+                for (int i = 0; i < iterations; i++) {
+                    final DayReport report = SolverRunner.run(solver, path.toString());
+                    if (best == null || report.totalNanos() < best.totalNanos()) { best = report; }
+                }
+                samples.add(new Sample(scale, Files.size(path), best));
+                System.out.println(format(samples.getLast()));
+                if (best.totalNanos() > budgetNanos) {
+                    System.out.printf("  %dx took over the time budget, skipping the larger scales%n", scale);
+                    break;
+                }
+            } catch (OutOfMemoryError e) {
+                System.out.printf("  %dx ran out of memory, skipping the larger scales%n", scale);
+                break;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return samples;
+    }
+
+    private static String format(final Sample s) {
+        final DayReport r = s.report();
+        return String.format("  %6dx %12d bytes  parse: %11.3fms part1: %11.3fms part2: %11.3fms",
+                s.scale(), s.bytes(), r.parseNanos() / 1e6, r.part1Nanos() / 1e6, r.part2Nanos() / 1e6);
+    }
+
+    private static String slopes(final List<Sample> samples) {
+        final double[] bytes = samples.stream().mapToDouble(Sample::bytes).toArray();
+        final double parse = slope(bytes, samples.stream().mapToDouble(s -> s.report().parseNanos()).toArray());
+        final double part1 = slope(bytes, samples.stream().mapToDouble(s -> s.report().part1Nanos()).toArray());
+        final double part2 = slope(bytes, samples.stream().mapToDouble(s -> s.report().part2Nanos()).toArray());
+        final boolean superLinear = parse > SUPER_LINEAR || part1 > SUPER_LINEAR || part2 > SUPER_LINEAR;
+        return String.format("  slope     parse: %5.2f  part1: %5.2f  part2: %5.2f%s",
+                parse, part1, part2, superLinear ? "  <- super-linear" : "");
+    }
+
+    public static void main(String[] args) {
+        final int[] scales = Arrays.stream(System.getProperty("aoc.scaling.scales", "1,10,100,1000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        final long seed = Long.getLong("aoc.scaling.seed", InputGenerators.DEFAULT_SEED);
+        final int iterations = Integer.getInteger("aoc.scaling.iterations", 1);
+        final long budgetNanos = Long.getLong("aoc.scaling.budget", 60) * 1_000_000_000L;
+        final Set<Integer> days = args.length > 0
+                ? Arrays.stream(args[0].split(",")).map(s -> Integer.parseInt(s.trim())).collect(Collectors.toSet())
+                : null;
+
+        for (Solver<?, ?, ?> solver : SolverRunner.discover()) {
+            if ((days != null && !days.contains(solver.day())) || !InputGenerators.supports(solver.day())) {
+                continue;
+            }
+            System.out.printf("Day %02d %s%n", solver.day(), solver.name());
+            final List<Sample> samples = measure(solver, scales, seed, iterations, budgetNanos);
+            System.out.println(slopes(samples));
+        }
+    }
+}
@@ -1,38 +1,79 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.IntSort;
+import dev.gmathur.utils.LongIntMap;
+import dev.gmathur.utils.OrderStatisticTree;
 import dev.gmathur.utils.Util.AocResult;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public class Day01HistorianHysteria {
-    private record GroupLocation(int left, int right) { }
-
-    private static List<GroupLocation> parse() {
-        try (var lines = Files.lines(new File("src/main/resources/day1/input_d1_historian_hysteria.lst").toPath())) {
-            return lines.map(line -> {
-                String[] parts = line.split("\\s+");
-                return new GroupLocation(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
-            }).toList();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+public class Day01HistorianHysteria implements Solver<Day01HistorianHysteria.Columns, Long, Long> {
+    static final String PUZZLE_INPUT = "src/main/resources/day1/input_d1_historian_hysteria.lst";
+
+    record GroupLocation(int left, int right) { }
+
+    /**
+     * The two lists as columns of primitive ints - no boxing, and no object per pair of locations.
+     */
+    record Columns(int[] left, int[] right) {
+        int size() { return left.length; }
+
+        List<GroupLocation> toLocations() {
+            final List<GroupLocation> locations = new ArrayList<>(size());
+            for (int i = 0; i < size(); i++) { locations.add(new GroupLocation(left[i], right[i])); }
+            return locations;
+        }
+    }
+
+    /**
+     * How part 1 sorts the lists. HEAP is the original solution, which polls two PriorityQueues. ADAPTIVE radix sorts
+     * lists that fit in cache and parallel sorts larger ones, see {@link IntSort#sort(int[])}.
+     */
+    public enum SortEngine { HEAP, RADIX, PARALLEL_SORT, ADAPTIVE }
+
+    static List<GroupLocation> parse(String fileName) {
+        final Input in = Input.open(fileName);
+        final List<GroupLocation> locations = new ArrayList<>();
+        while (in.hasNextInt()) {
+            locations.add(new GroupLocation(in.nextInt(), in.nextInt()));
+        }
+        return locations;
+    }
+
+    static Columns parseColumns(String fileName) {
+        final Input in = Input.open(fileName);
+        // A line of the puzzle input is 14 bytes. The columns grow if the guess is too small.
+        int[] left = new int[Math.max(16, in.length() / 12)];
+        int[] right = new int[left.length];
+        int n = 0;
+        while (in.hasNextInt()) {
+            if (n == left.length) {
+                left = Arrays.copyOf(left, n * 2);
+                right = Arrays.copyOf(right, n * 2);
+            }
+            left[n] = in.nextInt();
+            right[n] = in.nextInt();
+            n++;
         }
+        return new Columns(Arrays.copyOf(left, n), Arrays.copyOf(right, n));
     }
 
     /**
      * @param gl List of GroupLocation objects
      * @return The sum of the absolute differences between the left and right values of each GroupLocation object
-     * @throws IOException
      *
      * Using a mutable PriorityQueue to store the left and right values of each GroupLocation object. Deliberately using
      * two PriorityQueues to demonstrate the use of this technique.
      */
-    private static long part1(List<GroupLocation> gl) throws IOException {
+    static long part1(List<GroupLocation> gl) {
         PriorityQueue<Integer> left = new PriorityQueue<>();
         PriorityQueue<Integer> right = new PriorityQueue<>();
 
@@ -46,33 +87,233 @@ public class Day01HistorianHysteria {
                 .sum();
     }
 
+    /**
+     * @param columns The two lists, which are not modified
+     * @param engine How to sort the lists
+     * @return The sum of the absolute differences between the i-th smallest left and right values
+     */
+    static long part1(Columns columns, SortEngine engine) {
+        if (engine == SortEngine.HEAP) { return part1(columns.toLocations()); }
+
+        final int[] left = columns.left().clone();
+        final int[] right = columns.right().clone();
+        switch (engine) {
+            case RADIX -> { IntSort.radixSort(left); IntSort.radixSort(right); }
+            case PARALLEL_SORT -> { Arrays.parallelSort(left); Arrays.parallelSort(right); }
+            default -> { IntSort.sort(left); IntSort.sort(right); }
+        }
+
+        long sum = 0;
+        for (int i = 0; i < left.length; i++) { sum += Math.abs((long) left[i] - right[i]); }
+        return sum;
+    }
+
     /**
      * @param gl List of GroupLocation objects
-     * @return The sum of the product of the left and right values of each GroupLocation object
-     * @throws IOException
+     * @return The sum of every left value times the number of times it appears in the right list
      *
      * This is a pure functional solution with no side effects.
      */
-    private static long part2(List<GroupLocation> gl) throws IOException {
-        var leftUniqueVals = gl.stream()
-                .map(g -> g.left)
-                .collect(Collectors.toSet());
+    static long part2(List<GroupLocation> gl) {
         var rightFMap = gl.stream()
                 .collect(
                         Collectors.groupingBy(
                                 g -> g.right, Collectors.counting()));
 
-        return leftUniqueVals.stream()
-                .mapToLong(leftVal -> leftVal * rightFMap.getOrDefault(leftVal, 0L))
+        return gl.stream()
+                .mapToLong(g -> g.left * rightFMap.getOrDefault(g.left, 0L))
                 .sum();
     }
 
-    public static AocResult<Long, Long> solve() {
-        List<GroupLocation> gl = parse();
-        try {
-            return new AocResult<>(part1(gl), part2(gl));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    // Values spanning at most this many, and not much more than the number of pairs, are counted in dense arrays
+    static final int DENSE_RANGE_LIMIT = 1 << 24;
+    private static final int MIN_CHUNK = 1 << 14;
+
+    static long part2(Columns columns) {
+        return part2(columns, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    /**
+     * The similarity score is the sum over the distinct values v of v * left count(v) * right count(v), so it only
+     * needs one pass over the lists to count them, and then one over the counts.
+     * <p>
+     * The lists are split in one chunk per core, and every chunk counts its part of the lists in its own histograms,
+     * which are then added to the shared ones. When the values span a small range the histograms are int arrays
+     * indexed by value - min, otherwise they are hash maps, with memory in proportion to the distinct values.
+     *
+     * @param columns The two lists, which are not modified
+     * @param strategy How to run the chunks
+     * @return The sum of every left value times the number of times it appears in the right list
+     */
+    static long part2(Columns columns, ExecutionStrategy strategy) {
+        final int n = columns.size();
+        if (n == 0) { return 0; }
+
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            min = Math.min(min, Math.min(columns.left[i], columns.right[i]));
+            max = Math.max(max, Math.max(columns.left[i], columns.right[i]));
         }
+        final long range = (long) max - min + 1;
+        final int chunks = strategy == ExecutionStrategy.SEQUENTIAL ? 1
+                : Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), n / MIN_CHUNK));
+
+        return range <= DENSE_RANGE_LIMIT && range <= 4L * n + (1 << 16)
+                ? denseSimilarity(columns, min, (int) range, chunks, strategy)
+                : sparseSimilarity(columns, chunks, strategy);
     }
+
+    private static int chunkStart(final int n, final int chunks, final int k) { return (int) ((long) n * k / chunks); }
+
+    private static long denseSimilarity(final Columns columns, final int min, final int range, final int chunks,
+                                        final ExecutionStrategy strategy) {
+        final int n = columns.size();
+        final int[] leftCounts = new int[range];
+        final int[] rightCounts = new int[range];
+        strategy.sum(0, chunks, k -> {
+            // A single chunk counts straight into the shared histograms
+            final int[] left = chunks == 1 ? leftCounts : new int[range];
+            final int[] right = chunks == 1 ? rightCounts : new int[range];
+            for (int i = chunkStart(n, chunks, k); i < chunkStart(n, chunks, k + 1); i++) {
+                left[columns.left[i] - min]++;
+                right[columns.right[i] - min]++;
+            }
+            if (chunks > 1) {
+                synchronized (leftCounts) {
+                    for (int v = 0; v < range; v++) {
+                        leftCounts[v] += left[v];
+                        rightCounts[v] += right[v];
+                    }
+                }
+            }
+            return 0;
+        });
+        return strategy.sum(0, range, v -> (long) (min + v) * leftCounts[v] * rightCounts[v]);
+    }
+
+    private static long sparseSimilarity(final Columns columns, final int chunks, final ExecutionStrategy strategy) {
+        final int n = columns.size();
+        final LongIntMap leftCounts = new LongIntMap();
+        final LongIntMap rightCounts = new LongIntMap();
+        strategy.sum(0, chunks, k -> {
+            final LongIntMap left = chunks == 1 ? leftCounts : new LongIntMap();
+            final LongIntMap right = chunks == 1 ? rightCounts : new LongIntMap();
+            for (int i = chunkStart(n, chunks, k); i < chunkStart(n, chunks, k + 1); i++) {
+                left.addTo(columns.left[i], 1);
+                right.addTo(columns.right[i], 1);
+            }
+            if (chunks > 1) {
+                synchronized (leftCounts) {
+                    left.forEach(leftCounts::addTo);
+                    right.forEach(rightCounts::addTo);
+                }
+            }
+            return 0;
+        });
+
+        final long[] sum = {0};
+        leftCounts.forEach((v, count) -> sum[0] += v * count * rightCounts.get(v, 0));
+        return sum[0];
+    }
+
+    /**
+     * Both answers for a stream of location pairs, kept up to date as the pairs arrive, without holding on to the
+     * lists or sorting them. Each list is an {@link OrderStatisticTree} of location id counts, which compresses the ids
+     * as they arrive, so adding a pair is O(log D) and the memory is O(D), where D is the number of distinct ids, however
+     * large the ids are.
+     * <p>
+     * The similarity score is updated with every pair: a new left value v adds v times its count in the right list,
+     * and a new right value adds v times its count in the left list, so {@link #similarity()} is O(1).
+     * <p>
+     * The total distance is not O(log n) per update. It pairs the i-th smallest values of the lists, and one new pair
+     * can shift the pairing of all the values between its two ranks, so it isn't updated in place. Instead
+     * {@link #distance()} merges the two lists in order, one step per run of equal values, and caches the total until
+     * the next pair. A query is O(D) after a change and O(1) otherwise, so it suits reading the distance every so often
+     * rather than after every pair.
+     */
+    public static final class Tracker {
+        private final OrderStatisticTree left = new OrderStatisticTree();
+        private final OrderStatisticTree right = new OrderStatisticTree();
+        private long similarity;
+        private long distance;
+        private boolean dirty;
+
+        /**
+         * Add a pair of location ids, which must be non-negative
+         */
+        public void add(final int l, final int r) {
+            if (l < 0 || r < 0) {
+                throw new IllegalArgumentException("Location ids must be non-negative, got " + l + " and " + r);
+            }
+            left.add(l, 1);
+            similarity += (long) l * right.count(l);
+            right.add(r, 1);
+            similarity += (long) r * left.count(r);
+            dirty = true;
+        }
+
+        public long similarity() { return similarity; }
+
+        public long distance() {
+            if (dirty) {
+                final int[][] l = runs(left), r = runs(right);
+                long total = 0;
+                // The pairs up to the end of the shorter of the current runs all pair their two values
+                for (int i = 0, j = 0, li = 0, rj = 0; i < l[0].length; ) {
+                    if (li == 0) { li = l[1][i]; }
+                    if (rj == 0) { rj = r[1][j]; }
+                    final int pairs = Math.min(li, rj);
+                    total += pairs * Math.abs((long) l[0][i] - r[0][j]);
+                    li -= pairs;
+                    rj -= pairs;
+                    if (li == 0) { i++; }
+                    if (rj == 0) { j++; }
+                }
+                distance = total;
+                dirty = false;
+            }
+            return distance;
+        }
+
+        /**
+         * @return The distinct values of the list in order, and their counts
+         */
+        private static int[][] runs(final OrderStatisticTree list) {
+            final int[] values = new int[list.distinct()], counts = new int[list.distinct()];
+            final int[] n = {0};
+            list.forEach((v, count) -> {
+                values[n[0]] = v;
+                counts[n[0]++] = count;
+            });
+            return new int[][]{Arrays.copyOf(values, n[0]), Arrays.copyOf(counts, n[0])};
+        }
+
+        public long size() { return left.size(); }
+    }
+
+    /**
+     * @return A tracker fed with the pairs of the file, read one at a time
+     */
+    static Tracker track(String fileName) {
+        final Input in = Input.open(fileName);
+        final Tracker tracker = new Tracker();
+        while (in.hasNextInt()) { tracker.add(in.nextInt(), in.nextInt()); }
+        return tracker;
+    }
+
+    public static AocResult<Long, Long> solve() {
+        return new Day01HistorianHysteria().solve(PUZZLE_INPUT);
+    }
+
+    @Override
+    public String puzzleInput() { return PUZZLE_INPUT; }
+
+    @Override
+    public Columns parseInput(String fileName) { return parseColumns(fileName); }
+
+    @Override
+    public Long solvePart1(Columns input) { return part1(input, SortEngine.ADAPTIVE); }
+
+    @Override
+    public Long solvePart2(Columns input) { return part2(input); }
 }
@@ -1,70 +1,205 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Input;
 import dev.gmathur.utils.Util;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.List;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
-public class Day02RedNosedReports {
-    private record Report(List<Integer> levels) { }
-    private record Reports(List<Report> reports) { }
+public class Day02RedNosedReports implements Solver<Day02RedNosedReports.Reports, Integer, Integer> {
+    static final String PUZZLE_INPUT = "src/main/resources/day2/input_d2_red-nosed_reports.lst";
 
-    private static Reports parseReport() {
+    /**
+     * All the reports as columns: the levels of every report, one after the other, and the offset of each report's
+     * first level. Report i is levels[offsets[i]] up to levels[offsets[i + 1]].
+     */
+    record Reports(int[] levels, int[] offsets) {
+        int size() { return offsets.length - 1; }
+    }
+
+    // Inputs are parsed in one chunk per core, but no smaller than this
+    private static final int MIN_CHUNK_BYTES = 1 << 16;
+    // Files are read in windows of at most this many bytes, so that only one window's reports are in memory at once
+    static final int WINDOW_BYTES = 1 << 28;
+
+    static Reports parseReport(String fileName) {
+        return parse(Input.open(fileName), ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    /**
+     * Parse the input in chunks split at line ends, each into its own columns, and then join the columns.
+     */
+    static Reports parse(Input in, ExecutionStrategy strategy) {
+        final int chunks = strategy == ExecutionStrategy.SEQUENTIAL ? 1
+                : Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), in.length() / MIN_CHUNK_BYTES));
+        final Input[] slices = in.splitLines(chunks);
+        final Reports[] parts = new Reports[slices.length];
+        strategy.sum(0, slices.length, k -> {
+            parts[k] = parseChunk(slices[k]);
+            return 0;
+        });
+        if (parts.length == 1) { return parts[0]; }
+
+        int levelCount = 0, reportCount = 0;
+        for (Reports part : parts) {
+            levelCount += part.levels.length;
+            reportCount += part.size();
+        }
+        final int[] levels = new int[levelCount];
+        final int[] offsets = new int[reportCount + 1];
+        int l = 0, r = 0;
+        for (Reports part : parts) {
+            System.arraycopy(part.levels, 0, levels, l, part.levels.length);
+            for (int i = 1; i <= part.size(); i++) { offsets[++r] = l + part.offsets[i]; }
+            l += part.levels.length;
+        }
+        return new Reports(levels, offsets);
+    }
+
+    private static Reports parseChunk(Input in) {
+        // Start small and grow by doubling, so a large window doesn't reserve memory for levels it may not have
+        int[] levels = new int[1 << 12];
+        int[] offsets = new int[1 << 10];
+        int n = 0, reports = 0;
+        while (in.hasRemaining()) {
+            final int first = n;
+            while (in.hasNextIntOnLine()) {
+                if (n == levels.length) { levels = Arrays.copyOf(levels, n * 2); }
+                levels[n++] = in.nextInt();
+            }
+            if (n > first) {
+                if (reports + 1 == offsets.length) { offsets = Arrays.copyOf(offsets, offsets.length * 2); }
+                offsets[++reports] = n;
+            }
+            in.skipLine();
+        }
+        return new Reports(Arrays.copyOf(levels, n), Arrays.copyOf(offsets, reports + 1));
+    }
+
+    // The most levels a report may drop, for the removal counts to fit in the bits of a long
+    static final int MAX_REMOVALS = 62;
+
+    /**
+     * Decide if the levels in [from, to) are safe after removing at most k of them, in a single pass per direction
+     * and without allocating.
+     * <p>
+     * reach[i] is a bitmask of the number of levels removed before level i, for the safe subsequences that keep level
+     * i as their last level. A level can follow any of the k + 1 levels before it if the step between them is safe,
+     * with the levels in between removed, so reach[i] is the union of reach[j] shifted by i - j - 1 for those j. Only
+     * the last k + 1 masks are needed, kept in the scratch array. The report is safe if some level i can end the
+     * subsequence with the levels after it removed too.
+     *
+     * @param levels The levels of all the reports
+     * @param removals k, the most levels that may be removed
+     * @param scratch At least k + 1 longs, reused between calls
+     * @return True if the report is safe with at most k levels removed
+     */
+    static boolean isSafe(final int[] levels, final int from, final int to, final int removals, final long[] scratch) {
+        if (removals < 0 || removals > MAX_REMOVALS) {
+            throw new IllegalArgumentException("Removals must be in [0, " + MAX_REMOVALS + "], got " + removals);
+        }
+        // One level is always safe
+        if (to - from <= removals + 1) { return true; }
+        return isSafe(levels, from, to, removals, scratch, 1) || isSafe(levels, from, to, removals, scratch, -1);
+    }
+
+    private static boolean isSafe(final int[] levels, final int from, final int to, final int k, final long[] reach,
+                                  final int direction) {
+        final int n = to - from;
+        final int window = k + 1;
+        final long counts = (1L << window) - 1;
+        for (int i = 0; i < n; i++) {
+            // Level i may start the subsequence if there are at most k levels before it
+            long mask = i <= k ? 1L << i : 0;
+            for (int j = Math.max(0, i - window); j < i; j++) {
+                final int step = direction * (levels[from + i] - levels[from + j]);
+                if (step >= 1 && step <= 3) { mask |= reach[j % window] << (i - j - 1); }
+            }
+            mask &= counts;
+            reach[i % window] = mask;
+
+            final int rest = n - 1 - i;
+            if (rest <= k && (mask & ((1L << (k - rest + 1)) - 1)) != 0) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of reports that are safe with at most removals levels removed
+     */
+    static int countSafe(Reports reports, int removals, ExecutionStrategy strategy) {
+        return (int) strategy.sum(0, reports.size(), () -> new long[removals + 1], (scratch, i) ->
+                isSafe(reports.levels, reports.offsets[i], reports.offsets[i + 1], removals, scratch) ? 1 : 0);
+    }
+
+    /**
+     * Count the safe reports of a file of any size. The file is mapped a window at a time, cut at the last line end in
+     * the window, and each window is parsed and checked with the strategy before the next one is mapped.
+     *
+     * @return The number of reports that are safe with at most removals levels removed
+     */
+    static long countSafe(Path path, int removals, ExecutionStrategy strategy) {
+        return countSafe(path, removals, strategy, WINDOW_BYTES);
+    }
+
+    static long countSafe(Path path, int removals, ExecutionStrategy strategy, int windowBytes) {
+        final long size;
         try {
-            var lines = Files.readAllLines(Paths.get("src/main/resources/day2/input_d2_red-nosed_reports.lst"));
-            return new Reports(lines.stream()
-                    .map(line -> new Report(
-                            Stream.of(line.split(" "))
-                                    .map(Integer::parseInt)
-                                    .toList()))
-                    .toList());
+            size = Files.size(path);
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new UncheckedIOException("Error reading file: " + path, e);
         }
+
+        long safe = 0;
+        for (long offset = 0; offset < size; ) {
+            final Input window = Input.map(path, offset, Math.min(windowBytes, size - offset));
+            int end = window.length();
+            if (offset + end < size) {
+                while (end > 0 && window.get(end - 1) != '\n') { end--; }
+                if (end == 0) {
+                    throw new IllegalArgumentException("Line longer than " + windowBytes + " bytes in " + path);
+                }
+            }
+            safe += countSafe(parse(window.slice(0, end), strategy), removals, strategy);
+            offset += end;
+        }
+        return safe;
+    }
+
+    static int part1(Reports reports) {
+        return part1(reports, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
     }
 
-    private static boolean checkReport(Report report) {
-        var levels = report.levels;
-        var increasing = levels.get(1) > levels.get(0);
-        return IntStream.range(1, levels.size())
-                .allMatch(i -> {
-                    var diff = Math.abs(levels.get(i) - levels.get(i - 1));
-                    return diff >= 1 && diff <= 3 &&
-                            !(increasing && levels.get(i) < levels.get(i - 1)) &&
-                            !(!increasing && levels.get(i) > levels.get(i - 1));
-                });
+    static int part1(Reports reports, ExecutionStrategy strategy) {
+        return countSafe(reports, 0, strategy);
     }
 
-    private static int part1(Reports reports) {
-        return (int) reports.reports.stream()
-                .filter(Day02RedNosedReports::checkReport)
-                .count();
+    static int part2(Reports reports) {
+        return part2(reports, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
     }
 
-    private static int part2(Reports reports) {
-        return (int) reports.reports().stream()
-                .filter(report -> {
-                    if (!checkReport(report)) {
-                        var levels = report.levels();
-                        for (int j = 0; j < levels.size(); j++) {
-                            var newReport = new Report(Util.listExcludingElementAtI(levels, j));
-                            if (checkReport(newReport)) {
-                                return true;
-                            }
-                        }
-                        return false;
-                    }
-                    return true;
-                })
-                .count();
+    static int part2(Reports reports, ExecutionStrategy strategy) {
+        return countSafe(reports, 1, strategy);
     }
 
     public static Util.AocResult<Integer, Integer> solve() {
-        Reports reports = parseReport();
-        return new Util.AocResult<>(part1(reports), part2(reports));
+        return new Day02RedNosedReports().solve(PUZZLE_INPUT);
     }
+
+    @Override
+    public String puzzleInput() { return PUZZLE_INPUT; }
+
+    @Override
+    public Reports parseInput(String fileName) { return parseReport(fileName); }
+
+    @Override
+    public Integer solvePart1(Reports input) { return part1(input); }
+
+    @Override
+    public Integer solvePart2(Reports input) { return part2(input); }
 }
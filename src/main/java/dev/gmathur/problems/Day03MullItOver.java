@@ -1,16 +1,33 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.InstructionScanner;
+import dev.gmathur.utils.InstructionSet;
 import dev.gmathur.utils.Util.AocResult;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
-public class Day03MullItOver {
-    private static long solver(final String buffer, final Boolean ignore) {
-        final var regex = "mul\\((\\d{1,3}),(\\d{1,3})\\)|do\\(\\)|don't\\(\\)";
-        final var matcher = Pattern.compile(regex).matcher(buffer);
+public class Day03MullItOver implements Solver<ByteBuffer, Long, Long> {
+    static final String PUZZLE_INPUT = "src/main/resources/day3/input_d3_mull_it_over.lst";
+
+    private static final Pattern INSTRUCTIONS = Pattern.compile("mul\\((\\d{1,3}),(\\d{1,3})\\)|do\\(\\)|don't\\(\\)");
+
+    // The scanner runs directly over the mapped file, so the memory is never copied
+    static ByteBuffer parse(String fileName) {
+        return Input.open(fileName).asByteBuffer();
+    }
+
+    /**
+     * The original solution, a regex over the whole input. It's kept to check the scanner against.
+     */
+    static long regexSolver(final CharSequence buffer, final boolean ignore) {
+        final var matcher = INSTRUCTIONS.matcher(buffer);
         final var domul = new boolean[]{true};
 
         return matcher.results()
@@ -22,15 +39,250 @@ public class Day03MullItOver {
                 .sum();
     }
 
-    private static long part2(final String buffer) { return solver(buffer, false); }
-    private static long part1(final String buffer) { return solver(buffer, true); }
+    /**
+     * A hand-written DFA for mul(a,b), do() and don't(), fed a byte at a time. It keeps no input, only its state, so
+     * the memory can be fed in pieces of any size - a mapped file, or a stream much larger than the heap read a buffer
+     * at a time - and a token split between two pieces is still matched.
+     * <p>
+     * There is one state per prefix of a token. A byte that doesn't continue the token starts matching again from the
+     * start state. No token has an 'm' or a 'd' after its first byte, so a failed prefix never hides the start of
+     * another token and the scanner finds the same instructions as the regex.
+     * <p>
+     * Until the first do() or don't(), the scanner doesn't know if the multiplications are enabled - that depends on
+     * the memory before what it was fed. It sums them separately from the ones after, see {@link Segment}.
+     */
+    static final class Scanner {
+        private static final int START = 0, M = 1, MU = 2, MUL = 3, MUL_OPEN = 4, A = 5, COMMA = 6, B = 7;
+        private static final int D = 8, DO = 9, DO_OPEN = 10, DON = 11, DON_QUOTE = 12, DONT = 13, DONT_OPEN = 14;
+        // Operands have at most this many digits
+        private static final int MAX_DIGITS = 3;
+        private static final int STREAM_BUFFER = 1 << 16;
+
+        private int state = START;
+        private int a;
+        private int b;
+        private int digits;
+        private int toggle = Segment.UNCHANGED;
+        private long all;
+        private long beforeToggle;
+        private long afterToggle;
+
+        private static int restart(final byte c) {
+            return c == 'm' ? M : c == 'd' ? D : START;
+        }
+
+        private static boolean isDigit(final byte c) { return c >= '0' && c <= '9'; }
+
+        void next(final byte c) {
+            switch (state) {
+                case M -> state = c == 'u' ? MU : restart(c);
+                case MU -> state = c == 'l' ? MUL : restart(c);
+                case MUL -> state = c == '(' ? MUL_OPEN : restart(c);
+                case MUL_OPEN, COMMA -> {
+                    if (isDigit(c)) {
+                        if (state == MUL_OPEN) { a = c - '0'; } else { b = c - '0'; }
+                        digits = 1;
+                        state = state == MUL_OPEN ? A : B;
+                    } else {
+                        state = restart(c);
+                    }
+                }
+                case A -> {
+                    if (isDigit(c) && digits < MAX_DIGITS) {
+                        a = a * 10 + c - '0';
+                        digits++;
+                    } else {
+                        state = c == ',' ? COMMA : restart(c);
+                    }
+                }
+                case B -> {
+                    if (isDigit(c) && digits < MAX_DIGITS) {
+                        b = b * 10 + c - '0';
+                        digits++;
+                    } else if (c == ')') {
+                        all += (long) a * b;
+                        if (toggle == Segment.UNCHANGED) {
+                            beforeToggle += (long) a * b;
+                        } else if (toggle == Segment.ENABLED) {
+                            afterToggle += (long) a * b;
+                        }
+                        state = START;
+                    } else {
+                        state = restart(c);
+                    }
+                }
+                case D -> state = c == 'o' ? DO : restart(c);
+                case DO -> state = c == '(' ? DO_OPEN : c == 'n' ? DON : restart(c);
+                case DO_OPEN -> {
+                    if (c == ')') { toggle = Segment.ENABLED; }
+                    state = c == ')' ? START : restart(c);
+                }
+                case DON -> state = c == '\'' ? DON_QUOTE : restart(c);
+                case DON_QUOTE -> state = c == 't' ? DONT : restart(c);
+                case DONT -> state = c == '(' ? DONT_OPEN : restart(c);
+                case DONT_OPEN -> {
+                    if (c == ')') { toggle = Segment.DISABLED; }
+                    state = c == ')' ? START : restart(c);
+                }
+                default -> state = restart(c);
+            }
+        }
+
+        /**
+         * Feed the bytes in [from, to) of the buffer, and then the bytes after to that finish a token started before
+         * to. A token that starts at to or later is left to whoever scans from there.
+         */
+        Scanner feed(final ByteBuffer buffer, final int from, final int to) {
+            for (int i = from; i < to; i++) { next(buffer.get(i)); }
+            for (int i = to; i < buffer.limit() && state != START; i++) {
+                final byte c = buffer.get(i);
+                // An 'm' or a 'd' never continues a token, it starts the next one
+                if (c == 'm' || c == 'd') { break; }
+                next(c);
+            }
+            return this;
+        }
+
+        /**
+         * Feed the remaining bytes of the buffer, without moving its position
+         */
+        Scanner feed(final ByteBuffer buffer) {
+            for (int i = buffer.position(); i < buffer.limit(); i++) { next(buffer.get(i)); }
+            return this;
+        }
+
+        /**
+         * Feed the rest of the stream, a fixed size buffer at a time
+         */
+        Scanner feed(final InputStream in) throws IOException {
+            final byte[] chunk = new byte[STREAM_BUFFER];
+            for (int n; (n = in.read(chunk)) > 0; ) {
+                for (int i = 0; i < n; i++) { next(chunk[i]); }
+            }
+            return this;
+        }
+
+        /**
+         * @return The sum of all the multiplications so far
+         */
+        long part1() { return all; }
+
+        /**
+         * @return The sum of the multiplications so far that were enabled, if they were enabled at the start
+         */
+        long part2() { return beforeToggle + afterToggle; }
+
+        Segment segment() { return new Segment(all, beforeToggle + afterToggle, afterToggle, toggle); }
+    }
+
+    /**
+     * The result of scanning a piece of memory, for either state it may start in: the sum of all the multiplications,
+     * the sum of the enabled ones if the piece starts enabled or disabled, and the state it leaves behind, which is
+     * UNCHANGED if it has no do() or don't().
+     * <p>
+     * {@link #then(Segment)} joins two consecutive pieces. Joining is associative, so the pieces can be scanned
+     * independently and joined in order, and the result is that of scanning the whole memory.
+     */
+    record Segment(long all, long ifEnabled, long ifDisabled, int end) {
+        static final int UNCHANGED = 0, ENABLED = 1, DISABLED = 2;
+        static final Segment EMPTY = new Segment(0, 0, 0, UNCHANGED);
+
+        private long enabledSum(final boolean startEnabled) { return startEnabled ? ifEnabled : ifDisabled; }
+
+        private boolean endsEnabled(final boolean startEnabled) {
+            return end == UNCHANGED ? startEnabled : end == ENABLED;
+        }
 
-    public static AocResult<Long, Long> solve(){
-        try {
-            String input = Files.readString(new File("src/main/resources/day3/input_d3_mull_it_over.lst").toPath());
-            return new AocResult<>(part1(input), part2(input));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        Segment then(final Segment next) {
+            return new Segment(all + next.all,
+                    ifEnabled + next.enabledSum(endsEnabled(true)),
+                    ifDisabled + next.enabledSum(endsEnabled(false)),
+                    next.end == UNCHANGED ? end : next.end);
         }
     }
+
+    // The memory is scanned in one chunk per core, but no smaller than this
+    private static final int MIN_CHUNK_BYTES = 1 << 16;
+
+    /**
+     * Scan the memory in chunks with the strategy, and join the chunks' segments in order
+     */
+    static Segment scan(final ByteBuffer buffer, final ExecutionStrategy strategy) {
+        final int chunks = strategy == ExecutionStrategy.SEQUENTIAL ? 1
+                : Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), buffer.remaining() / MIN_CHUNK_BYTES));
+        return scan(buffer, strategy, chunks);
+    }
+
+    static Segment scan(final ByteBuffer buffer, final ExecutionStrategy strategy, final int chunks) {
+        final int from = buffer.position();
+        final int length = buffer.remaining();
+        final Segment[] segments = new Segment[chunks];
+        strategy.sum(0, chunks, k -> {
+            final int start = from + (int) ((long) length * k / chunks);
+            final int end = from + (int) ((long) length * (k + 1) / chunks);
+            segments[k] = new Scanner().feed(buffer, start, end).segment();
+            return 0;
+        });
+        return Arrays.stream(segments).reduce(Segment.EMPTY, Segment::then);
+    }
+
+    /**
+     * The totals of a scan with an {@link InstructionSet}, and whether the multiplications are enabled
+     */
+    static final class Totals {
+        boolean enabled = true;
+        long all;
+        long enabledOnly;
+    }
+
+    /**
+     * The puzzle's instructions as an {@link InstructionSet}, for memory with more opcodes than the puzzle's
+     */
+    static InstructionSet<Totals> instructionSet() {
+        return new InstructionSet<Totals>()
+                .opcode("mul", 2, 3, (t, operands) -> {
+                    t.all += operands[0] * operands[1];
+                    if (t.enabled) { t.enabledOnly += operands[0] * operands[1]; }
+                })
+                .opcode("do", 0, 0, (t, operands) -> t.enabled = true)
+                .opcode("don't", 0, 0, (t, operands) -> t.enabled = false);
+    }
+
+    private static final InstructionScanner<Totals> INSTRUCTION_SCANNER = instructionSet().compile();
+
+    static Totals scanInstructions(final ByteBuffer buffer) {
+        return INSTRUCTION_SCANNER.scan(buffer, new Totals());
+    }
+
+    static long part2(final ByteBuffer buffer) {
+        return part2(buffer, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    static long part2(final ByteBuffer buffer, final ExecutionStrategy strategy) {
+        return scan(buffer, strategy).ifEnabled();
+    }
+
+    static long part1(final ByteBuffer buffer) {
+        return part1(buffer, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    static long part1(final ByteBuffer buffer, final ExecutionStrategy strategy) {
+        return scan(buffer, strategy).all();
+    }
+
+    public static AocResult<Long, Long> solve() {
+        return new Day03MullItOver().solve(PUZZLE_INPUT);
+    }
+
+    @Override
+    public String puzzleInput() { return PUZZLE_INPUT; }
+
+    @Override
+    public ByteBuffer parseInput(String fileName) { return parse(fileName); }
+
+    @Override
+    public Long solvePart1(ByteBuffer input) { return part1(input); }
+
+    @Override
+    public Long solvePart2(ByteBuffer input) { return part2(input); }
 }
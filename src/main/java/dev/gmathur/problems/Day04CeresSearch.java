@@ -1,21 +1,144 @@
 package dev.gmathur.problems;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
+import dev.gmathur.utils.AhoCorasick;
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.LetterMasks;
+
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.stream.Collectors;
-
-public class Day04CeresSearch {
-    private static List<String> parse(String filename) {
-        try (var lines = Files.lines(new File(filename).toPath())) {
-            return lines.collect(Collectors.toList());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+
+public class Day04CeresSearch implements Solver<byte[][], Integer, Integer> {
+    static final String PUZZLE_INPUT = "src/main/resources/day4/input_d4.lst";
+
+    /**
+     * How the grid is searched. PER_CELL is the original solution, which checks every direction from every cell.
+     * BIT_PARALLEL checks 64 cells at a time with {@link LetterMasks}. AHO_CORASICK reads every line of the grid once
+     * per direction with an automaton of all the words, see {@link #countWords(byte[][], List)}. BANDS splits the
+     * grid in bands of rows and searches them in parallel, bit parallel, see
+     * {@link #countInBands(byte[][], String, boolean, int, ExecutionStrategy)}.
+     */
+    public enum SearchEngine { PER_CELL, BIT_PARALLEL, AHO_CORASICK, BANDS }
+
+    // Rows per band. A band's masks of 4 letters on a 20,000 column grid are about 2.5MB.
+    static final int BAND_ROWS = 256;
+
+    static byte[][] parse(String filename) {
+        return Input.open(filename).nextRows();
+    }
+
+    /**
+     * Called with every cell of a line, and the automaton's node after reading the line up to the cell
+     */
+    private interface LineVisitor {
+        void visit(int r, int c, int node);
+    }
+
+    /**
+     * Read every row, column and diagonal of the grid with the automaton, in a single pass over the grid in row order.
+     * A row is read as the pass goes, and every column, diagonal down and right and diagonal down and left keeps its
+     * own node, which moves on with each row. The lines are read top to bottom and left to right.
+     *
+     * @param rowsAndColumns Visits the rows and columns, or null to skip them
+     */
+    private static void scanLines(AhoCorasick automaton, byte[][] grid, LineVisitor rowsAndColumns,
+                                  LineVisitor diagonals, LineVisitor antiDiagonals) {
+        final int R = grid.length, C = grid[0].length;
+        final int[] columns = new int[C];
+        // The diagonal through (r, c) is c - r + R - 1, and the anti-diagonal r + c
+        final int[] diagonal = new int[R + C - 1];
+        final int[] antiDiagonal = new int[R + C - 1];
+        for (int r = 0; r < R; r++) {
+            final byte[] row = grid[r];
+            int node = AhoCorasick.ROOT;
+            for (int c = 0; c < C; c++) {
+                final byte b = row[c];
+                if (rowsAndColumns != null) {
+                    node = automaton.next(node, b);
+                    rowsAndColumns.visit(r, c, node);
+                    columns[c] = automaton.next(columns[c], b);
+                    rowsAndColumns.visit(r, c, columns[c]);
+                }
+                final int d = c - r + R - 1;
+                diagonal[d] = automaton.next(diagonal[d], b);
+                diagonals.visit(r, c, diagonal[d]);
+                antiDiagonal[r + c] = automaton.next(antiDiagonal[r + c], b);
+                antiDiagonals.visit(r, c, antiDiagonal[r + c]);
+            }
+        }
+    }
+
+    private static List<String> withReversed(List<String> words) {
+        final List<String> patterns = new ArrayList<>(words.size() * 2);
+        for (String word : words) {
+            patterns.add(word);
+            patterns.add(new StringBuilder(word).reverse().toString());
         }
+        return patterns;
+    }
+
+    /**
+     * Count every word in the grid, in any of the 8 directions, in a single pass over the grid that reads every row,
+     * column and diagonal.
+     * <p>
+     * The lines are only read forwards, so the automaton holds every word and its reverse. A word that reads the same
+     * both ways is counted twice, once per direction, just like a search in all 8 directions counts it. The cost is a
+     * table lookup per cell per line through it, four per cell, however many words there are.
+     *
+     * @return The number of times each word is in the grid, in the order of the words
+     */
+    static long[] countWords(byte[][] grid, List<String> words) {
+        final AhoCorasick automaton = AhoCorasick.of(withReversed(words));
+        final long[] visits = new long[automaton.nodes()];
+        final LineVisitor count = (r, c, node) -> visits[node]++;
+        scanLines(automaton, grid, count, count, count);
+
+        final long[] matches = automaton.patternCounts(visits);
+        final long[] counts = new long[words.size()];
+        for (int i = 0; i < counts.length; i++) { counts[i] = matches[2 * i] + matches[2 * i + 1]; }
+        return counts;
+    }
+
+    /**
+     * Count the cells where the word, of odd length, crosses itself in an X, with the automaton of the word and its
+     * reverse. A match that ends at a cell has its middle half a word back along the line, which is marked for the
+     * diagonal or the anti-diagonal, and the crosses are the middles marked for both.
+     */
+    static long countCrosses(byte[][] grid, String word) {
+        if (word.length() % 2 == 0) { throw new IllegalArgumentException("Word " + word + " has no middle letter"); }
+        final AhoCorasick automaton = AhoCorasick.of(withReversed(List.of(word)));
+        final int C = grid[0].length, half = word.length() / 2;
+        final BitSet diagonal = new BitSet(), antiDiagonal = new BitSet();
+        scanLines(automaton, grid, null,
+                (r, c, node) -> { if (automaton.output(node) >= 0) { diagonal.set((r - half) * C + c - half); } },
+                (r, c, node) -> { if (automaton.output(node) >= 0) { antiDiagonal.set((r - half) * C + c + half); } });
+        diagonal.and(antiDiagonal);
+        return diagonal.cardinality();
+    }
+
+    /**
+     * Count the word, or its crosses, in bands of rows of the grid, one band per iteration of the strategy's loop. A
+     * band counts the words that start in its rows, or the crosses with their middle there, so every match is counted
+     * by exactly one band. Its masks also cover a halo of the rows on either side that a match can reach from the
+     * band - len(word) - 1 rows for a word, half a word for a cross - so the matches that cross its edges are found.
+     * <p>
+     * Every band builds its own masks, so the bands share nothing but the grid, and the masks are small enough to
+     * stay in the cache while the band is searched.
+     */
+    static long countInBands(byte[][] grid, String word, boolean crosses, int bandRows, ExecutionStrategy strategy) {
+        if (bandRows < 1) { throw new IllegalArgumentException("Rows per band must be positive, got " + bandRows); }
+        final int R = grid.length;
+        final int halo = crosses ? word.length() / 2 : word.length() - 1;
+        final int bands = (int) (((long) R + bandRows - 1) / bandRows);
+        return strategy.sum(0, bands, band -> {
+            final int from = band * bandRows, to = Math.min(R, from + bandRows);
+            final LetterMasks masks = new LetterMasks(grid, Math.max(0, from - halo), Math.min(R, to + halo), word);
+            return crosses ? masks.countCrosses(word, from, to) : masks.count(word, from, to);
+        });
     }
 
-    private static boolean search(int[][] offsets, List<String> lines, int r, int c, String target, int R, int C) {
+    private static boolean search(int[][] offsets, byte[][] lines, int r, int c, String target, int R, int C) {
         int targetIndex = 0;
         for (int[] offset : offsets) {
             int dr = offset[0];
@@ -25,17 +148,27 @@ public class Day04CeresSearch {
             if (i < 0 || i >= R || j < 0 || j >= C) {
                 return false;
             }
-            if (lines.get(i).charAt(j) != target.charAt(targetIndex++)) {
+            if (lines[i][j] != target.charAt(targetIndex++)) {
                 return false;
             }
         }
         return true;
     }
 
-    private static int part2(List<String> lines) {
+    static int part2(byte[][] lines, SearchEngine engine) {
+        return switch (engine) {
+            case PER_CELL -> part2(lines);
+            case BIT_PARALLEL -> (int) new LetterMasks(lines, "MAS").countCrosses("MAS");
+            case AHO_CORASICK -> (int) countCrosses(lines, "MAS");
+            case BANDS -> (int) countInBands(lines, "MAS", true, BAND_ROWS,
+                    ExecutionStrategy.configured(ExecutionStrategy.FORK_JOIN));
+        };
+    }
+
+    static int part2(byte[][] lines) {
         var count = 0;
-        var R = lines.size();
-        var C = lines.get(0).length();
+        var R = lines.length;
+        var C = lines[0].length;
         var topLeftToBottomRight = new int[][]{{-1,-1},{0,0},{1,1}};
         var bottomRightToTopLeft = new int[][]{{1,1},{0,0},{-1,-1}};
         var topRightToBottomLeft = new int[][]{{-1,1},{0,0},{1,-1}};
@@ -43,8 +176,8 @@ public class Day04CeresSearch {
         var target = "MAS";
 
 
-        for (int r = 0; r < lines.size(); r++) {
-            for (int c = 0; c < lines.get(0).length(); c++) {
+        for (int r = 0; r < R; r++) {
+            for (int c = 0; c < C; c++) {
                 if ((search(topLeftToBottomRight, lines, r, c, target, R, C) ||
                     search(bottomRightToTopLeft, lines, r, c, target, R, C)) &&
 
@@ -57,7 +190,17 @@ public class Day04CeresSearch {
         return count;
     }
 
-    private static int part1(List<String> lines) {
+    static int part1(byte[][] lines, SearchEngine engine) {
+        return switch (engine) {
+            case PER_CELL -> part1(lines);
+            case BIT_PARALLEL -> (int) new LetterMasks(lines, "XMAS").count("XMAS");
+            case AHO_CORASICK -> (int) countWords(lines, List.of("XMAS"))[0];
+            case BANDS -> (int) countInBands(lines, "XMAS", false, BAND_ROWS,
+                    ExecutionStrategy.configured(ExecutionStrategy.FORK_JOIN));
+        };
+    }
+
+    static int part1(byte[][] lines) {
         var directions = List.of(
                 new int[][]{{0,0},{0,1},{0,2},{0,3}}, // horizontal right
                 new int[][]{{0,0},{0,-1},{0,-2},{0,-3}}, // horizontal left
@@ -69,8 +212,8 @@ public class Day04CeresSearch {
                 new int[][]{{0,0},{-1,1},{-2,2},{-3,3}} // diagonal right up
         );
 
-        int R = lines.size();
-        int C = lines.get(0).length();
+        int R = lines.length;
+        int C = lines[0].length;
         int count = 0;
 
         for (int r = 0; r < R; r++) {
@@ -85,17 +228,15 @@ public class Day04CeresSearch {
         return count;
     }
 
-    public static void main(String[] args) {
-        List<String> lines = parse("src/main/resources/day4/input_d4_test.lst");
-        assert(18 == part1(lines));
+    @Override
+    public String puzzleInput() { return PUZZLE_INPUT; }
 
-        List<String> lines2 = parse("src/main/resources/day4/input_d4.lst");
-        assert(2578 == part1(lines2));
+    @Override
+    public byte[][] parseInput(String fileName) { return parse(fileName); }
 
-        List<String> lines3 = parse("src/main/resources/day4/input_d4_test.lst");
-        assert(9 == part2(lines3));
+    @Override
+    public Integer solvePart1(byte[][] input) { return part1(input, SearchEngine.BIT_PARALLEL); }
 
-        List<String> lines4 = parse("src/main/resources/day4/input_d4.lst");
-        assert(1972 == part2(lines4));
-    }
+    @Override
+    public Integer solvePart2(byte[][] input) { return part2(input, SearchEngine.BIT_PARALLEL); }
 }
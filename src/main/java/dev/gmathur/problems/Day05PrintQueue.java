@@ -1,93 +1,320 @@
 package dev.gmathur.problems;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.util.*;
-
-public class Day05PrintQueue {
-    private record SolutionInput(Map<Integer, Set<Integer>> ordering, List<List<Integer>> updates) { }
-
-    private static SolutionInput parse(String filename) {
-        Map<Integer, Set<Integer>> ordering = new HashMap<>();
-        List<List<Integer>> updates = new ArrayList<>();
-
-        try (var lines = Files.lines(new File(filename).toPath())) {
-            boolean processingOrder = true;
-            for (String line: lines.toList()) {
-                if (line.isEmpty()) {
-                    processingOrder = false;
-                    continue;
-                }
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.Util.AocResult;
+
+import java.util.Arrays;
+
+public class Day05PrintQueue implements Solver<Day05PrintQueue.SolutionInput, Integer, Integer> {
+    record SolutionInput(Rules rules, int[][] updates) { }
+
+    /**
+     * How an update that isn't in order is put in order. COMPARATOR_SORT is the original solution, a sort with the
+     * rules as the comparator. TOPOLOGICAL orders the update's pages with Kahn's algorithm on the rules between them.
+     * MEDIAN_SELECTION finds the middle page without ordering the others, see {@link #middlePage(int[], Rules)}.
+     */
+    public enum ReorderEngine { COMPARATOR_SORT, TOPOLOGICAL, MEDIAN_SELECTION }
 
-                if (processingOrder) {
-                    String[] parts = line.split("\\|");
-                    int page = Integer.parseInt(parts[0]);
-                    int nextInOrder = Integer.parseInt(parts[1]);
-                    ordering.computeIfAbsent(page, k -> new HashSet<>()).add(nextInOrder);
-                } else {
-                    List<Integer> sequence = Arrays.stream(line.split(","))
-                            .map(Integer::parseInt)
-                            .toList();
-                    updates.add(sequence);
+    /**
+     * The page ordering rules, compiled into a dense bit matrix - page numbers are small - with bit j of row i set if
+     * there is a rule a|b between the i-th and j-th pages in the rules. Whether a page must come before another is a
+     * single bit test. The matrix is indexed by the pages in the rules rather than by page number, so it stays small
+     * enough to be in the cache when the page numbers are sparse. Every page that isn't in a rule has the last index,
+     * whose row and column are empty.
+     */
+    public static final class Rules {
+        // The index of every page number in [0, index.length) in the matrix
+        private final int[] index;
+        // The number of pages in the rules, which is also the index of the pages that aren't
+        private final int pages;
+        // Longs per row
+        private final int words;
+        private final long[] matrix;
+
+        /**
+         * @param before The pages that come first, one per rule
+         * @param after The pages that come after them
+         * @param n The number of rules
+         */
+        Rules(final int[] before, final int[] after, final int n) {
+            int max = -1;
+            for (int i = 0; i < n; i++) {
+                if (before[i] < 0 || after[i] < 0) {
+                    throw new IllegalArgumentException("Page numbers must be non-negative, got " + before[i] + "|"
+                            + after[i]);
                 }
+                max = Math.max(max, Math.max(before[i], after[i]));
+            }
+            this.index = new int[max + 1];
+            Arrays.fill(index, -1);
+            int pages = 0;
+            for (int i = 0; i < n; i++) {
+                if (index[before[i]] < 0) { index[before[i]] = pages++; }
+                if (index[after[i]] < 0) { index[after[i]] = pages++; }
+            }
+            for (int i = 0; i <= max; i++) {
+                if (index[i] < 0) { index[i] = pages; }
+            }
+            this.pages = pages;
+            this.words = (pages + 1 + 63) >>> 6;
+            this.matrix = new long[(pages + 1) * words];
+            for (int i = 0; i < n; i++) {
+                final int a = index[before[i]], b = index[after[i]];
+                matrix[a * words + (b >>> 6)] |= 1L << b;
             }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
-        return new SolutionInput(ordering, updates);
+
+        /**
+         * @return The page's index in the matrix
+         */
+        int indexOf(final int page) { return page >= 0 && page < index.length ? index[page] : pages; }
+
+        /**
+         * @return Whether a rule says the page must come before the other page
+         */
+        public boolean before(final int page, final int other) {
+            final int b = indexOf(other);
+            return (matrix[indexOf(page) * words + (b >>> 6)] & 1L << b) != 0;
+        }
     }
 
-    private static boolean isValidSequence(List<Integer> update, Map<Integer, Set<Integer>> ordering) {
-        for (int i = 1; i < update.size(); i++) {
-            int page = update.get(i - 1);
-            int nextInOrder = update.get(i);
-            if (!ordering.containsKey(page) || !ordering.get(page).contains(nextInOrder)) {
-                return false;
+    /**
+     * Read the page ordering rules, one "X|Y" per line, up to the blank line
+     */
+    private static Rules parseRules(Input in) {
+        int[] before = new int[1 << 10], after = new int[1 << 10];
+        int rules = 0;
+        while (in.hasRemaining() && !in.atBlankLine()) {
+            if (rules == before.length) {
+                before = Arrays.copyOf(before, rules * 2);
+                after = Arrays.copyOf(after, rules * 2);
             }
+            before[rules] = in.nextInt();
+            after[rules++] = in.nextInt();
+            in.skipLine();
+        }
+        return new Rules(before, after, rules);
+    }
+
+    /**
+     * Read the pages of the update on the current line into the scratch array, growing it if needed, and move to the
+     * next line
+     *
+     * @return The scratch array, and the number of pages in it
+     */
+    private static int[] nextUpdate(Input in, int[] scratch, int[] length) {
+        int n = 0;
+        while (in.hasNextIntOnLine()) {
+            if (n == scratch.length) { scratch = Arrays.copyOf(scratch, n * 2); }
+            scratch[n++] = in.nextInt();
+        }
+        in.skipLine();
+        length[0] = n;
+        return scratch;
+    }
+
+    static SolutionInput parse(String filename) {
+        final Input in = Input.open(filename);
+        final Rules rules = parseRules(in);
+        // The updates, one comma separated list of pages per line
+        int[][] updates = new int[1 << 8][];
+        int n = 0;
+        int[] pages = new int[64];
+        final int[] length = new int[1];
+        while (in.hasRemaining()) {
+            pages = nextUpdate(in, pages, length);
+            if (length[0] > 0) {
+                if (n == updates.length) { updates = Arrays.copyOf(updates, n * 2); }
+                updates[n++] = Arrays.copyOf(pages, length[0]);
+            }
+        }
+        return new SolutionInput(rules, Arrays.copyOf(updates, n));
+    }
+
+    /**
+     * An update is in order if there is a rule for every pair of adjacent pages
+     */
+    static boolean isValidSequence(int[] update, Rules rules) {
+        return isValidSequence(update, update.length, rules);
+    }
+
+    /**
+     * @param length The number of pages at the start of the array that are the update
+     */
+    static boolean isValidSequence(int[] update, int length, Rules rules) {
+        for (int i = 1; i < length; i++) {
+            if (!rules.before(update[i - 1], update[i])) { return false; }
         }
         return true;
     }
 
-    private static List<Integer> part2SortUpdate(List<Integer> update, Map<Integer, Set<Integer>> ordering) {
-        var sorted = new ArrayList<>(update);
-        sorted.sort(new Comparator<Integer>() {
-            @Override
-            public int compare(Integer o1, Integer o2) {
-                if (ordering.containsKey(o1) && ordering.get(o1).contains(o2)) {
-                    return -1;
-                } else if (ordering.containsKey(o2) && ordering.get(o2).contains(o1)) {
-                    return 1;
+    private static int[] part2SortUpdate(int[] update, Rules rules) {
+        final Integer[] sorted = Arrays.stream(update).boxed().toArray(Integer[]::new);
+        Arrays.sort(sorted, (o1, o2) -> rules.before(o1, o2) ? -1 : rules.before(o2, o1) ? 1 : 0);
+        return Arrays.stream(sorted).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Order the pages of the update with Kahn's algorithm: the pages with no rule from another page of the update come
+     * first, and every page follows once all the pages with a rule to it have been placed.
+     * <p>
+     * The rules between the update's pages are read from the matrix once, k^2 bit tests for k pages, into a bitmask of
+     * each page's successors among the update's indices, without branching on the bits, which are as good as random.
+     * Placing a page then only visits the pages after it.
+     */
+    static int[] topologicalOrder(int[] update, Rules rules) {
+        final int k = update.length, kw = (k + 63) >>> 6;
+        final long[] matrix = rules.matrix;
+        final int words = rules.words;
+        final int[] indices = new int[k];
+        for (int i = 0; i < k; i++) { indices[i] = rules.indexOf(update[i]); }
+        // successors[i * kw ...] has bit j set if update[i] must come before update[j]
+        final long[] successors = new long[k * kw];
+        // The number of pages of the update that must come before each page that haven't been placed yet
+        final int[] waiting = new int[k];
+        for (int i = 0; i < k; i++) {
+            final int row = indices[i] * words;
+            for (int w = 0; w < kw; w++) {
+                long bits = 0;
+                for (int j = w << 6, end = Math.min(k, j + 64); j < end; j++) {
+                    final long bit = matrix[row + (indices[j] >>> 6)] >>> indices[j] & 1;
+                    bits |= bit << j;
+                    waiting[j] += (int) bit;
                 }
-                return 0;
+                successors[i * kw + w] = bits;
             }
-        });
+        }
+
+        // The indices of the pages, in order, as a queue: the ones up to head are placed, the rest are ready
+        final int[] order = new int[k];
+        int head = 0, tail = 0;
+        for (int i = 0; i < k; i++) {
+            if (waiting[i] == 0) { order[tail++] = i; }
+        }
+        while (head < tail) {
+            final int i = order[head++];
+            for (int w = 0; w < kw; w++) {
+                for (long bits = successors[i * kw + w]; bits != 0; bits &= bits - 1) {
+                    final int j = w << 6 | Long.numberOfTrailingZeros(bits);
+                    if (--waiting[j] == 0) { order[tail++] = j; }
+                }
+            }
+        }
+        if (tail < k) {
+            throw new IllegalArgumentException("The rules order the pages of " + Arrays.toString(update)
+                    + " in a cycle");
+        }
+
+        final int[] sorted = new int[k];
+        for (int i = 0; i < k; i++) { sorted[i] = update[order[i]]; }
         return sorted;
     }
 
-    public static int part2(String file) {
-        var s = parse(file);
+    /**
+     * The page in the middle of the update once it's in order, found without ordering it: the page that the rules put
+     * after exactly half of the other pages. O(k^2) bit tests for k pages, and nothing is copied.
+     * <p>
+     * The rules must order the update's pages totally, as they do for every update of the puzzle, or the middle page
+     * isn't fixed.
+     */
+    static int middlePage(int[] update, Rules rules) {
+        return middlePage(update, update.length, rules);
+    }
 
-        var ordering = s.ordering;
-        var result = 0;
-        for (var update : s.updates) {
-            if (!isValidSequence(update, ordering)) {
-                result += part2SortUpdate(update, ordering).get(update.size() / 2);
+    /**
+     * @param k The number of pages at the start of the array that are the update
+     */
+    static int middlePage(int[] update, int k, Rules rules) {
+        final int middle = k / 2;
+        for (int i = 0; i < k; i++) {
+            final int page = update[i];
+            int before = 0;
+            for (int j = 0; j < k && before <= middle; j++) {
+                if (rules.before(update[j], page)) { before++; }
             }
+            if (before == middle) { return page; }
         }
-        return result;
+        throw new IllegalArgumentException("The rules don't fix the middle page of "
+                + Arrays.toString(Arrays.copyOf(update, k)));
+    }
+
+    public static int part2(String file) {
+        return part2(parse(file));
+    }
+
+    static int part2(SolutionInput s) {
+        return part2(s, ReorderEngine.MEDIAN_SELECTION);
+    }
+
+    static int part2(SolutionInput s, ReorderEngine engine) {
+        return part2(s, engine, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    /**
+     * The updates are independent, so they are checked and reordered in chunks, by the strategy.
+     */
+    static int part2(SolutionInput s, ReorderEngine engine, ExecutionStrategy strategy) {
+        var rules = s.rules;
+        var updates = s.updates;
+        return (int) strategy.sum(0, updates.length, i -> {
+            var update = updates[i];
+            if (isValidSequence(update, rules)) { return 0; }
+            return switch (engine) {
+                case COMPARATOR_SORT -> part2SortUpdate(update, rules)[update.length / 2];
+                case TOPOLOGICAL -> topologicalOrder(update, rules)[update.length / 2];
+                case MEDIAN_SELECTION -> middlePage(update, rules);
+            };
+        });
     }
 
     public static int part1(String file) {
-        var s = parse(file);
+        return part1(parse(file));
+    }
 
-        var ordering = s.ordering;
+    static int part1(SolutionInput s) {
+        var rules = s.rules;
         var result = 0;
         for (var update : s.updates) {
-            if (isValidSequence(update, ordering)) {
-                result += update.get(update.size() / 2);
+            if (isValidSequence(update, rules)) {
+                result += update[update.length / 2];
             }
         }
         return result;
     }
+
+    /**
+     * Both answers, like {@link #solve(String)} but without keeping the updates: every update is checked, and its
+     * middle page found if it's not in order, as soon as it's read after the rules. Only the rules and the update being
+     * read are held in memory, however many updates there are.
+     */
+    public static AocResult<Integer, Integer> solveStreaming(Input in) {
+        final Rules rules = parseRules(in);
+        int part1 = 0, part2 = 0;
+        int[] pages = new int[64];
+        final int[] length = new int[1];
+        while (in.hasRemaining()) {
+            pages = nextUpdate(in, pages, length);
+            final int k = length[0];
+            if (k == 0) { continue; }
+            if (isValidSequence(pages, k, rules)) {
+                part1 += pages[k / 2];
+            } else {
+                part2 += middlePage(pages, k, rules);
+            }
+        }
+        return new AocResult<>(part1, part2);
+    }
+
+    @Override
+    public String puzzleInput() { return "src/main/resources/day5/d5.input"; }
+
+    @Override
+    public SolutionInput parseInput(String fileName) { return parse(fileName); }
+
+    @Override
+    public Integer solvePart1(SolutionInput input) { return part1(input); }
+
+    @Override
+    public Integer solvePart2(SolutionInput input) { return part2(input); }
 }
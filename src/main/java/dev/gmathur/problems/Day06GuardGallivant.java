@@ -1,25 +1,22 @@
 package dev.gmathur.problems;
 
-import dev.gmathur.utils.Util.Pair;
-import dev.gmathur.utils.Util.Triple;
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Grid;
+import dev.gmathur.utils.Input;
 
-import java.io.*;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
-
-public class Day06GuardGallivant {
-    private record Coordinate(int x, int y) {}
 
+public class Day06GuardGallivant implements Solver<Day06GuardGallivant.SolutionInput, Integer, Integer> {
     /**
      * Record to store the input for the solution
      *
-     * @param obstacles Set of coordinates of obstacles
-     * @param start Starting coordinate
-     * @param size Pair of the size of the grid (x, y)
+     * @param grid The lab, with '#' for obstacles
+     * @param start Grid index of the starting cell
      */
-    private record SolutionInput(Set<Coordinate> obstacles, Coordinate start, Pair<Integer, Integer> size) {}
+    record SolutionInput(Grid grid, int start) {}
 
-    // Direction enums for the four cardinal directions with next valid direction in clockwise order
+    // Direction enums for the four cardinal directions with next valid direction in clockwise order. The ordinals
+    // match the Grid neighbour offsets.
     private enum Direction {
         NORTH, EAST, SOUTH, WEST;
 
@@ -33,151 +30,256 @@ public class Day06GuardGallivant {
         }
     }
 
-    private static SolutionInput readFileFromResources(final String fileName) {
-        Set<Coordinate> obstacles = new HashSet<>();
-        int y_max = 0;
-        int x_max = 0;
-        Coordinate start = null;
-        try (BufferedReader reader =
-                     new BufferedReader(
-                             new InputStreamReader(
-                                     Objects.requireNonNull(Day06GuardGallivant.class.getClassLoader().getResourceAsStream(fileName))
-        ))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                for (int x = 0; x < line.length(); x++) {
-                    char c = line.charAt(x);
-                    if (c == '^') { start = new Coordinate(x, y_max); }
-                    if (c == '#') { obstacles.add(new Coordinate(x, y_max)); }
-                }
-                x_max = line.length();
-                y_max++;
+    /**
+     * How part 2 looks for a cycle. STEP walks one cell at a time and remembers every (cell, direction) it has been
+     * at. JUMP_TABLE moves from obstacle to obstacle with a {@link JumpTable} and only remembers the turns.
+     */
+    public enum CycleEngine { STEP, JUMP_TABLE }
+
+    /**
+     * Where the guard stops, facing an obstacle, when it walks from every cell in every direction - or the border cell
+     * it steps onto if there is no obstacle in the way. Every walk of the guard is then a jump per turn.
+     * <p>
+     * The table is built for the lab's own obstacles, and an extra obstacle is applied when a stop is read: it only
+     * changes the stops of the cells in its row and column that walk through it, which is the one jump it cuts short.
+     * The table itself never changes, so every thread can share it.
+     */
+    static final class JumpTable {
+        private final Grid grid;
+        // stops[cell * 4 + direction]
+        private final int[] stops;
+
+        JumpTable(final Grid grid) {
+            this.grid = grid;
+            this.stops = new int[grid.size() * 4];
+            // North and west from the cells before, in index order, and south and east from the cells after
+            for (int i = 0; i < grid.size(); i++) {
+                fill(i, Grid.NORTH);
+                fill(i, Grid.WEST);
+            }
+            for (int i = grid.size() - 1; i >= 0; i--) {
+                fill(i, Grid.SOUTH);
+                fill(i, Grid.EAST);
             }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
         }
-        return new SolutionInput(obstacles, start, new Pair<>(x_max, y_max));
+
+        private void fill(final int cell, final int d) {
+            final byte b = grid.get(cell);
+            if (b == Grid.BORDER || b == '#') { return; }
+            final int next = cell + grid.n4(d);
+            final byte n = grid.get(next);
+            stops[cell * 4 + d] = n == '#' ? cell : n == Grid.BORDER ? next : stops[next * 4 + d];
+        }
+
+        /**
+         * @return Where the guard stops walking from the cell in direction d, with an extra obstacle in the lab
+         */
+        int stop(final int cell, final int d, final int obstacle) {
+            final int stop = stops[cell * 4 + d];
+            final int step = grid.n4(d);
+            // The obstacle is in the way if it's k steps ahead, for k from 1 to the length of the jump
+            final int delta = obstacle - cell;
+            final int k = delta / step;
+            return delta % step == 0 && k >= 1 && k <= (stop - cell) / step ? obstacle - step : stop;
+        }
+    }
+
+    /**
+     * The turns of a walk, as a bitmask of (cell, direction) states. It remembers the words it has set, so that
+     * clearing it for the next walk only touches those.
+     */
+    private static final class Turns {
+        private final long[] bits;
+        private int[] touched = new int[64];
+        private int n;
+
+        Turns(final int states) { bits = new long[(states + 63) >>> 6]; }
+
+        /**
+         * @return True if the state was already set
+         */
+        boolean visit(final int state) {
+            final int w = state >>> 6;
+            final long bit = 1L << state;
+            if ((bits[w] & bit) != 0) { return true; }
+            if (bits[w] == 0) {
+                if (n == touched.length) { touched = Arrays.copyOf(touched, n * 2); }
+                touched[n++] = w;
+            }
+            bits[w] |= bit;
+            return false;
+        }
+
+        void clear() {
+            for (int i = 0; i < n; i++) { bits[touched[i]] = 0; }
+            n = 0;
+        }
+    }
+
+    static SolutionInput readFileFromResources(final String fileName) {
+        final Grid grid = Grid.parse(Input.open(fileName));
+        return new SolutionInput(grid, grid.find((byte) '^'));
     }
 
     /**
      * Find a cycle in the grid. It simulates the movement of the guard and checks if it has
-     * visited a point before. If it has, then it has found a cycle.
+     * visited a cell, facing the same direction, before. If it has, then it has found a cycle.
      *
-     * @param x x coordinate of the starting point
-     * @param y y coordinate of the starting point
+     * @param grid The lab
+     * @param pos Grid index of the starting cell
      * @param direction Direction the guard is facing at the starting point
-     * @param R Number of rows in the grid
-     * @param C Number of columns in the grid
-     * @param obstacles Set of coordinates of obstacles
-     * @param visited Set of visited coordinates
+     * @param obstacle Grid index of the extra obstacle, on top of the ones in the grid
+     * @param visited Visited (cell, direction) states, indexed by cell * 4 + direction
      *
      * @return True if a cycle is found, false otherwise
      */
 
-    private static boolean findCycle(int x, int y, Direction direction, int R, int C, Set<Coordinate> obstacles,
-                                     Set<Triple<Integer, Integer, Direction>> visited) {
+    private static boolean findCycle(final Grid grid, int pos, Direction direction, final int obstacle,
+                                     final BitSet visited) {
         while (true) {
-            if (visited.contains(new Triple<>(x, y, direction))) {
+            final int state = pos * 4 + direction.ordinal();
+            if (visited.get(state)) {
                 return true; // Cycle found
             }
 
-            visited.add(new Triple<>(x, y, direction));
+            visited.set(state);
 
-            switch (direction) { case NORTH -> y--; case EAST -> x++; case SOUTH -> y++; case WEST -> x--; }
+            final int next = pos + grid.n4(direction.ordinal());
+            final byte b = grid.get(next);
 
-            if (obstacles.contains(new Coordinate(x, y))) { // if you hit an obstacle
-                var new_direction = direction.nextClockwise(); // turn clockwise 90 degrees
-                switch (direction) { case NORTH -> y++; case EAST -> x--; case SOUTH -> y--; case WEST -> x++; } // go back
-                direction = new_direction;
+            if (b == Grid.BORDER) {
+                return false; // No cycle found, we hit the edge
+            }
+            if (b == '#' || next == obstacle) { // if you hit an obstacle
+                direction = direction.nextClockwise(); // turn clockwise 90 degrees
+            } else {
+                pos = next;
             }
+        }
+    }
 
-            if (x < 0 || y < 0 || x >= C || y >= R) {
-                return false; // No cycle found, we hit the edge
+    /**
+     * Find a cycle with the jump table. A cycle comes back to a turn it has already made, facing the same way, so only
+     * the turns are remembered.
+     *
+     * @return True if a cycle is found, false if the guard leaves the lab
+     */
+    private static boolean findCycle(final JumpTable jumps, int pos, int direction, final int obstacle,
+                                     final Turns turns) {
+        while (true) {
+            pos = jumps.stop(pos, direction, obstacle);
+            if (jumps.grid.get(pos) == Grid.BORDER) {
+                return false;
+            }
+            if (turns.visit(pos * 4 + direction)) {
+                return true;
+            }
+            direction = (direction + 1) & 3;
+        }
+    }
+
+    /**
+     * The cells the guard walks through, from the start until it leaves the lab
+     */
+    private static BitSet path(final SolutionInput input) {
+        final Grid grid = input.grid();
+        int pos = input.start();
+        Direction direction = Direction.NORTH;
+        final BitSet visited = grid.newMask();
+
+        visited.set(pos);
+        while (true) {
+            final int next = pos + grid.n4(direction.ordinal());
+            final byte b = grid.get(next);
+
+            if (b == Grid.BORDER) {
+                break;
+            }
+
+            if (b == '#') {
+                // If you hit an obstacle, turn clockwise 90 degrees
+                direction = direction.nextClockwise();
+            } else {
+                pos = next;
+                visited.set(pos);
             }
         }
+        return visited;
     }
 
     /**
-     * Part 2 of the solution. This solution works by simulating an obstacle at every point in the grid that's a
-     * non-obstacle and not a starting point. It then runs a DFS from the starting point to see if there's a cycle.
+     * Part 2 of the solution. This solution works by simulating an obstacle at every cell of the guard's path, other
+     * than the start - an obstacle anywhere else is never in the way - and walking from the start to see if there's a
+     * cycle.
      *
      * @param fileName Name of the input file
      * @return Number of unique paths
      */
 
     public static int part2(final String fileName) {
-        final SolutionInput input = readFileFromResources(fileName);
-        final int start_x = input.start().x();
-        final int start_y = input.start().y();
-        final int R = input.size().first();
-        final int C = input.size().second();
+        return part2(readFileFromResources(fileName));
+    }
+
+    static int part2(final SolutionInput input) {
+        return part2(input, ExecutionStrategy.configured(ExecutionStrategy.VIRTUAL_THREADS));
+    }
+
+    static int part2(final SolutionInput input, final ExecutionStrategy strategy) {
+        return part2(input, strategy, CycleEngine.JUMP_TABLE);
+    }
+
+    static int part2(final SolutionInput input, final ExecutionStrategy strategy, final CycleEngine engine) {
+        final Grid grid = input.grid();
+        final int start = input.start();
         final Direction direction = Direction.NORTH;
 
-        AtomicInteger count = new AtomicInteger(0);
-        List<Thread> threads = new ArrayList<>();
-
-        for (int x = 0; x < input.size().first(); x++) {
-            for (int y = 0; y < input.size().second(); y++) {
-                final int finalX = x;
-                final int finalY = y;
-                Thread thread = Thread.ofVirtual().start(() -> {
-                    if (input.obstacles().contains(new Coordinate(finalX, finalY))) {
-                        return;
-                    }
-                    if (finalX == start_x && finalY == start_y) {
-                        return;
-                    }
-                    // simulate an obstacle at (finalX, finalY)
-                    final Set<Coordinate> localObstacles = new HashSet<>(input.obstacles());
-                    localObstacles.add(new Coordinate(finalX, finalY));
-                    if (findCycle(start_x, start_y, direction, C, R, localObstacles, new HashSet<>())) {
-                        count.incrementAndGet();
-                    }
+        final BitSet path = path(input);
+        path.clear(start);
+        final int[] candidates = path.stream().toArray();
+
+        return (int) switch (engine) {
+            // Every chunk of candidates reuses one visited set, cleared for every candidate
+            case STEP -> strategy.sum(0, candidates.length, () -> new BitSet(grid.size() * 4), (visited, i) -> {
+                visited.clear();
+                // simulate an obstacle at the candidate cell
+                return findCycle(grid, start, direction, candidates[i], visited) ? 1 : 0;
+            });
+            case JUMP_TABLE -> {
+                final JumpTable jumps = new JumpTable(grid);
+                yield strategy.sum(0, candidates.length, () -> new Turns(grid.size() * 4), (turns, i) -> {
+                    turns.clear();
+                    return findCycle(jumps, start, direction.ordinal(), candidates[i], turns) ? 1 : 0;
                 });
-                threads.add(thread);
             }
-        }
-
-        for (Thread thread : threads) {
-            try { thread.join(); }
-            catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-        }
-
-        return count.get();
+        };
     }
 
     /**
      * Part 1 of the solution. This solution works by simulating the movement of the guard in the grid. If the guard
-     * hits an obstacle, it turns clockwise 90 degrees and goes back one step. If it hits the edge of the grid,
-     * it stops.
+     * faces an obstacle, it turns clockwise 90 degrees instead of stepping on it. If it steps onto the border of the
+     * grid, it stops.
      *
      * @param fileName Name of the input file
      *
      * @return Number of unique paths
      */
     public static int part1(final String fileName) {
-        final SolutionInput input = readFileFromResources(fileName);
-        int x = input.start().x();
-        int y = input.start().y();
-        Direction direction = Direction.NORTH;
-        Set<Pair<Integer, Integer>> visited = new HashSet<>();
+        return part1(readFileFromResources(fileName));
+    }
 
-        visited.add(new Pair<>(x, y));
-        while (true) {
-            switch (direction) { case NORTH -> y--; case EAST -> x++; case SOUTH -> y++; case WEST -> x--; }
+    static int part1(final SolutionInput input) {
+        return path(input).cardinality();
+    }
 
-            if (x < 0 || y < 0 || x >= input.size().first() || y >= input.size().second()) {
-                break;
-            }
+    @Override
+    public String puzzleInput() { return "day6/d6.input"; }
 
-            if (input.obstacles().contains(new Coordinate(x, y))) {
-                // If you hit an obstacle, turn clockwise 90 degrees and go back one step
-                switch (direction) { case NORTH -> y++; case EAST -> x--; case SOUTH -> y--; case WEST -> x++; }
-                direction = direction.nextClockwise();
-            } else {
-                visited.add(new Pair<>(x, y));
-            }
-        }
-        return visited.size();
-    }
+    @Override
+    public SolutionInput parseInput(String fileName) { return readFileFromResources(fileName); }
+
+    @Override
+    public Integer solvePart1(SolutionInput input) { return part1(input); }
+
+    @Override
+    public Integer solvePart2(SolutionInput input) { return part2(input); }
 }
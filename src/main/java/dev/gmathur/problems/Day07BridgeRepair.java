@@ -1,74 +1,95 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.MemoCache;
 import dev.gmathur.utils.Util.Pair;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.math.BigInteger;
 import java.util.*;
 
-public class Day07BridgeRepair {
-    private record SolutionInput(List<Pair<BigInteger, List<BigInteger>>> input) {}
+public class Day07BridgeRepair implements Solver<Day07BridgeRepair.SolutionInput, BigInteger, BigInteger> {
+    record SolutionInput(List<Pair<BigInteger, List<BigInteger>>> input) {}
 
-    private static SolutionInput readFileFromResources(final String fileName) {
+    static SolutionInput readFileFromResources(final String fileName) {
         List<Pair<BigInteger, List<BigInteger>>> input = new ArrayList<>();
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(Day07BridgeRepair.class.getClassLoader().getResourceAsStream(fileName))))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] tokens = line.split(": ");
-                BigInteger target = new BigInteger(tokens[0]);
-                List<BigInteger> operands = Arrays.stream(tokens[1].split(" "))
-                        .map(BigInteger::new)
-                        .toList();
-                var p = new Pair<>(target, operands);
-                input.add(p);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        final Input in = Input.open(fileName);
+        while (in.hasNextInt()) {
+            // "target: operand operand ...", all of which fit in a long
+            BigInteger target = BigInteger.valueOf(in.nextLong());
+            List<BigInteger> operands = new ArrayList<>();
+            while (in.hasNextIntOnLine()) { operands.add(BigInteger.valueOf(in.nextLong())); }
+            input.add(new Pair<>(target, Collections.unmodifiableList(operands)));
         }
 
         return new SolutionInput(input);
     }
 
+    // Equations with targets up to 2^48 are memoized, which covers all the equations in the puzzle input
+    private static final int RESULT_BITS = 48;
+    // Most equations need a few hundred entries and the largest ones about 2^17, which then evict the coldest
+    private static final int MEMO_SIZE = 1 << 16;
+
     /**
      * At each index, we have three choices: add, multiply, or concatenate the current operand to the result. We use a memo to
      * store the result of each sub-problem to avoid recomputing the same sub-problem multiple times. That seems to shave off
      * around 300 ms from the execution time.
+     * <p>
+     * A sub-problem only has a meaning for its own equation, so the memo holds one equation's entries at a time. Its
+     * key is the index and the result so far, which is never more than the target, and its value is 1 if the equation
+     * can be solved from there and 0 if it can't.
      *
      * @param target The target value to reach
      * @param operands The list of operands
      * @param idx The current index in the operands list
      * @param result The current result
-     * @param memo The memo to store the result of each sub-problem
+     * @param memo The memo to store the result of each sub-problem, or null if the target is too big to memoize
      *
      * @return True if we find a solution, false otherwise
      */
     private static boolean solvePart2(final BigInteger target, final List<BigInteger> operands, final int idx,
-                                      final BigInteger result, Map<Pair<Integer, BigInteger>, Boolean> memo) {
-        final Pair<Integer, BigInteger> key = new Pair<>(idx, result);
-        if (memo.containsKey(key)) { return memo.get(key); }
+                                      final BigInteger result, final MemoCache memo) {
         if (idx == operands.size()) { return result.equals(target); }
         if (result.compareTo(target) > 0) { return false; }
 
+        final long key = (long) idx << RESULT_BITS | result.longValue();
+        if (memo != null) {
+            final long memoized = memo.get(key, -1);
+            if (memoized >= 0) { return memoized == 1; }
+        }
+
         final boolean solved = solvePart2(target, operands, idx + 1, result.add(operands.get(idx)), memo) ||
                 solvePart2(target, operands, idx + 1, result.multiply(operands.get(idx)), memo) ||
-                solvePart2(target, operands, idx + 1, new BigInteger(result.toString() + operands.get(idx).toString()), memo);
+                solvePart2(target, operands, idx + 1,
+                        new BigInteger(result.toString() + operands.get(idx).toString()), memo);
 
-        memo.put(key, solved);
+        if (memo != null) { memo.put(key, solved ? 1 : 0); }
         return solved;
     }
 
     public static BigInteger part2(String fileName) {
-        final SolutionInput input = readFileFromResources(fileName);
-        return input.input.stream()
-                .filter(p -> {
-                    Map<Pair<Integer, BigInteger>, Boolean> memo = new HashMap<>();
-                    return solvePart2(p.first(), p.second(), 0, BigInteger.ZERO, memo);
-                })
-                .map(Pair::first)
-                .reduce(BigInteger.ZERO, BigInteger::add);
+        return part2(readFileFromResources(fileName));
+    }
+
+    static BigInteger part2(final SolutionInput input) {
+        return part2(input, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    /**
+     * Every chunk of equations gets its own memo, which is cleared before each equation, so a thread never waits for
+     * another and equations never evict each other's entries.
+     * <p>
+     * The targets are read as longs, so the sum of the solvable ones is too.
+     */
+    static BigInteger part2(final SolutionInput input, final ExecutionStrategy strategy) {
+        return BigInteger.valueOf(strategy.sum(0, input.input.size(), () -> new MemoCache(MEMO_SIZE), (memo, i) -> {
+            final var p = input.input.get(i);
+            final boolean memoize = p.first().bitLength() <= RESULT_BITS && p.second().size() < 1 << 15;
+            if (memoize) { memo.clear(); }
+            final boolean solved = solvePart2(p.first(), p.second(), 0, BigInteger.ZERO, memoize ? memo : null);
+            return solved ? p.first().longValueExact() : 0;
+        }));
     }
 
     /**
@@ -92,10 +113,29 @@ public class Day07BridgeRepair {
     }
 
     public static BigInteger part1(String fileName) {
-        final SolutionInput input = readFileFromResources(fileName);
-        return input.input.stream()
-                .filter(p -> solvePart1(p.first(), p.second(), 0, BigInteger.ZERO))
-                .map(Pair::first)
-                .reduce(BigInteger.ZERO, BigInteger::add);
+        return part1(readFileFromResources(fileName));
     }
-}
\ No newline at end of file
+
+    static BigInteger part1(final SolutionInput input) {
+        return part1(input, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    static BigInteger part1(final SolutionInput input, final ExecutionStrategy strategy) {
+        return BigInteger.valueOf(strategy.sum(0, input.input.size(), i -> {
+            final var p = input.input.get(i);
+            return solvePart1(p.first(), p.second(), 0, BigInteger.ZERO) ? p.first().longValueExact() : 0;
+        }));
+    }
+
+    @Override
+    public String puzzleInput() { return "day7/d7.input"; }
+
+    @Override
+    public SolutionInput parseInput(String fileName) { return readFileFromResources(fileName); }
+
+    @Override
+    public BigInteger solvePart1(SolutionInput input) { return part1(input); }
+
+    @Override
+    public BigInteger solvePart2(SolutionInput input) { return part2(input); }
+}
@@ -1,10 +1,11 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.Coords;
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.LongSet;
 import dev.gmathur.utils.Util.Pair;
 import dev.gmathur.utils.Util.Triple;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.util.*;
 import java.util.function.BiPredicate;
 
@@ -34,31 +35,27 @@ import java.util.function.BiPredicate;
  * 1. Part 1 turns out to be an easier version of the problem where we only need to find the antinodes, disregarding
  * the manhattan distance.
  */
-public class Day08ResonantCollinearity {
+public class Day08ResonantCollinearity implements Solver<Day08ResonantCollinearity.SolutionInput, Integer, Integer> {
     // Solution input is a record that stores the list of antennas and the size of the grid. The list of antennas is a
     // list of Triples where each Triple represents an antenna by its row, column, and character value -
     // (row, column, character).
-    private record SolutionInput(List<Triple<Integer, Integer, Character>> antennas, int R, int C) {}
+    record SolutionInput(List<Triple<Integer, Integer, Character>> antennas, int R, int C) {}
 
-    private static SolutionInput readFileFromResources(final String fileName) {
+    static SolutionInput readFileFromResources(final String fileName) {
         List<Triple<Integer, Integer, Character>> antennas = new ArrayList<>();
         int R = 0;
         int C = 0;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(Day08ResonantCollinearity.class.getClassLoader().getResourceAsStream(fileName))))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                C = line.length();
-                String[] tokens = line.split("");
-                for (int col = 0; col < tokens.length; col++) {
-                    if (!tokens[col].equals(".")) {
-                        antennas.add(new Triple<>(R, col, tokens[col].charAt(0)));
-                    }
+        final Input in = Input.open(fileName);
+        while (in.hasRemaining()) {
+            C = in.lineLength();
+            for (int col = 0; col < C; col++) {
+                byte b = in.next();
+                if (b != '.') {
+                    antennas.add(new Triple<>(R, col, (char) b));
                 }
-                R++;
             }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            in.skipLine();
+            R++;
         }
 
         return new SolutionInput(antennas, R, C);
@@ -66,10 +63,8 @@ public class Day08ResonantCollinearity {
 
     // Collinearity check for three points - p1, p2, and p3 - using the cross product of the vectors formed by the
     // points. The points are collinear if the cross product is zero.
-    private static boolean isCollinear(Triple<Integer, Integer, Character> p1,
-                                Triple<Integer, Integer, Character> p2,
-                                Triple<Integer, Integer, Character> p3) {
-        return (p1.first() * (p2.second() - p3.second()) + p2.first() * (p3.second() - p1.second()) + p3.first() * (p1.second() - p2.second())) == 0;
+    private static boolean isCollinear(int p1r, int p1c, int p2r, int p2c, int p3r, int p3c) {
+        return (p1r * (p2c - p3c) + p2r * (p3c - p1c) + p3r * (p1c - p2c)) == 0;
     }
 
     // Manhattan distance between two points (p1x, p1y) and (p2x, p2y) is the sum of the absolute differences of their
@@ -93,25 +88,26 @@ public class Day08ResonantCollinearity {
         return antennaPairs;
     }
 
-    private static int solveWithPredicate(String fileName, BiPredicate<Integer, Integer> condition) {
-        final SolutionInput input = readFileFromResources(fileName);
+    private static int solveWithPredicate(SolutionInput input, BiPredicate<Integer, Integer> condition) {
         // Get all pairs of antennas with the same character value. i.e. the same type of antennas.
         final List<Pair<Triple<Integer, Integer, Character>, Triple<Integer, Integer, Character>>> antennaPairs =
                 getPairs(input);
-        final Set<Pair<Integer, Integer>> antiNodes = new HashSet<>();
+        final LongSet antiNodes = new LongSet();
 
         // For each pair of antennas, find all the collinear antennas in the grid and test the condition.
         for (Pair<Triple<Integer, Integer, Character>, Triple<Integer, Integer, Character>> pair : antennaPairs) {
-            Triple<Integer, Integer, Character> p1 = pair.first();
-            Triple<Integer, Integer, Character> p2 = pair.second();
+            final int p1r = pair.first().first();
+            final int p1c = pair.first().second();
+            final int p2r = pair.second().first();
+            final int p2c = pair.second().second();
 
             for (int r = 0; r < input.R; r++) {
                 for (int c = 0; c < input.C; c++) {
-                    if (isCollinear(p1, p2, new Triple<>(r, c, '.'))) {
-                        int d1 = manhattanDistance(p1.first(), p1.second(), r, c);
-                        int d2 = manhattanDistance(p2.first(), p2.second(), r, c);
+                    if (isCollinear(p1r, p1c, p2r, p2c, r, c)) {
+                        int d1 = manhattanDistance(p1r, p1c, r, c);
+                        int d2 = manhattanDistance(p2r, p2c, r, c);
                         if (condition.test(d1, d2)) {
-                            antiNodes.add(new Pair<>(r, c));
+                            antiNodes.add(Coords.pack(r, c));
                         }
                     }
                 }
@@ -122,13 +118,33 @@ public class Day08ResonantCollinearity {
     }
 
     public static int part1(String fileName) {
+        return part1(readFileFromResources(fileName));
+    }
+
+    static int part1(SolutionInput input) {
         // For part 1 the distance between the antinode and one of the antennas has to be twice the distance between the
         // antinode and the other antenna.
-        return solveWithPredicate(fileName, (d1, d2) -> d1 == 2 * d2 || d2 == 2 * d1);
+        return solveWithPredicate(input, (d1, d2) -> d1 == 2 * d2 || d2 == 2 * d1);
     }
 
     public static int part2(String fileName) {
+        return part2(readFileFromResources(fileName));
+    }
+
+    static int part2(SolutionInput input) {
         // For part 2 the distance between the antinode and the two antennas can be anything.
-        return solveWithPredicate(fileName, (d1, d2) -> true);
+        return solveWithPredicate(input, (d1, d2) -> true);
     }
+
+    @Override
+    public String puzzleInput() { return "day8/d8.input"; }
+
+    @Override
+    public SolutionInput parseInput(String fileName) { return readFileFromResources(fileName); }
+
+    @Override
+    public Integer solvePart1(SolutionInput input) { return part1(input); }
+
+    @Override
+    public Integer solvePart2(SolutionInput input) { return part2(input); }
 }
@@ -1,8 +1,8 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.Input;
 import dev.gmathur.utils.Util.Pair;
 
-import java.io.*;
 import java.util.*;
 import java.util.stream.IntStream;
 
@@ -40,40 +40,37 @@ import java.util.stream.IntStream;
  * 2. One thing to note here is that the Solution input files list will have wrong information after part2 is run because
  * the files are moved to the contiguous free space. The files list is not needed after part2 is run so it is not a problem.
  */
-public class Day09DiskFragmenter {
-    private record SolutionInput(List<Optional<Long>> physicalDisk, List<Pair<Long, List<Integer>>> files) {}
-
-    private SolutionInput parse(String filename) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Objects.requireNonNull(
-                Day09DiskFragmenter.class.getClassLoader().getResourceAsStream(filename))))) {
-            final List<Optional<Long>> physicalDisk = new ArrayList<>();
-            final List<Pair<Long, List<Integer>>> files = new ArrayList<>();
-
-            final String line = reader.readLine();
-            long ident = 0L;
-            // blockId tracks the offsets in the physicalDisk
-            int blockId = 0;
-
-            for (int diskMapIdx = 0; diskMapIdx <= line.length()-1; diskMapIdx +=2) {
-                int block_num = Integer.parseInt(line.substring(diskMapIdx, diskMapIdx+1));
-                int freeNum = (diskMapIdx + 1 < line.length()) ? Integer.parseInt(line.substring(diskMapIdx + 1, diskMapIdx + 2)) : 0;
-
-                var fileBlockIds = new ArrayList<Integer>();
-                for (int i = 0; i < block_num; i++) {
-                    physicalDisk.add(Optional.of(ident));
-                    fileBlockIds.add(blockId);
-                    blockId += 1;
-                }
-                files.add(new Pair<>(ident, fileBlockIds));
-
-                for (int i = 0; i < freeNum; i++) { physicalDisk.add(Optional.empty()); blockId += 1; }
-
-                ident += 1;
+public class Day09DiskFragmenter implements Solver<Day09DiskFragmenter.SolutionInput, Long, Long> {
+    record SolutionInput(List<Optional<Long>> physicalDisk, List<Pair<Long, List<Integer>>> files) {}
+
+    SolutionInput parse(String filename) {
+        final Input in = Input.open(filename);
+        final List<Optional<Long>> physicalDisk = new ArrayList<>();
+        final List<Pair<Long, List<Integer>>> files = new ArrayList<>();
+
+        // The disk map is a single line of digits
+        final int length = in.lineLength();
+        long ident = 0L;
+        // blockId tracks the offsets in the physicalDisk
+        int blockId = 0;
+
+        for (int diskMapIdx = 0; diskMapIdx <= length - 1; diskMapIdx += 2) {
+            int block_num = in.get(diskMapIdx) - '0';
+            int freeNum = (diskMapIdx + 1 < length) ? in.get(diskMapIdx + 1) - '0' : 0;
+
+            var fileBlockIds = new ArrayList<Integer>();
+            for (int i = 0; i < block_num; i++) {
+                physicalDisk.add(Optional.of(ident));
+                fileBlockIds.add(blockId);
+                blockId += 1;
             }
-            return new SolutionInput(physicalDisk, files);
-        } catch (IOException ex) {
-            throw new RuntimeException(ex);
+            files.add(new Pair<>(ident, fileBlockIds));
+
+            for (int i = 0; i < freeNum; i++) { physicalDisk.add(Optional.empty()); blockId += 1; }
+
+            ident += 1;
         }
+        return new SolutionInput(physicalDisk, files);
     }
 
     private static int findNextFree(List<Optional<Long>> physicalDisk, int startIdx) {
@@ -148,7 +145,10 @@ public class Day09DiskFragmenter {
     }
 
     public long part2(String fileName) {
-        final var solutionInput = parse(fileName);
+        return part2(parse(fileName));
+    }
+
+    long part2(final SolutionInput solutionInput) {
         final var physicalDisk = solutionInput.physicalDisk;
         final var files = solutionInput.files;
 
@@ -165,7 +165,10 @@ public class Day09DiskFragmenter {
     }
 
     public long part1(String fileName) {
-        final var solutionInput = parse(fileName);
+        return part1(parse(fileName));
+    }
+
+    long part1(final SolutionInput solutionInput) {
         final var physicalDisk = solutionInput.physicalDisk;
 
         int writeIdx = findNextFree(physicalDisk, 0);
@@ -180,4 +183,20 @@ public class Day09DiskFragmenter {
 
         return calculateChecksum(physicalDisk);
     }
+
+    @Override
+    public String puzzleInput() { return "day9/d9.input"; }
+
+    @Override
+    public SolutionInput parseInput(String fileName) { return parse(fileName); }
+
+    @Override
+    public Long solvePart1(SolutionInput input) { return part1(input); }
+
+    @Override
+    public Long solvePart2(SolutionInput input) { return part2(input); }
+
+    // Both parts move files around on the parsed disk
+    @Override
+    public boolean mutatesInput() { return true; }
 }
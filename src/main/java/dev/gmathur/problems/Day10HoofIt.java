@@ -1,10 +1,10 @@
 package dev.gmathur.problems;
 
-import dev.gmathur.utils.Util.Pair;
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Grid;
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.MemoCache;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.*;
 import java.util.stream.IntStream;
 
@@ -30,92 +30,118 @@ import java.util.stream.IntStream;
  * 3. The absolute runtimes are very low, so I am happy with the performance of the solution
  *
  */
-public class Day10HoofIt {
-    private record SolutionInput(int[][] grid, int R, int C) {}
+public class Day10HoofIt implements Solver<Day10HoofIt.SolutionInput, Integer, Integer> {
+    // Heights are kept as their ASCII digits, '0' to '9'
+    record SolutionInput(Grid grid) {}
 
-    private static SolutionInput parse(String filename) {
-        try (var reader = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(Day09DiskFragmenter.class.getClassLoader().getResourceAsStream(filename))))) {
-
-            var grid = reader.lines()
-                    .map(line -> line.chars()
-                            .map(Character::getNumericValue)
-                            .toArray())
-                    .toList();
-
-            final int R = grid.size();
-            final int C = grid.isEmpty() ? 0 : grid.getFirst().length;
-
-            if (grid.stream().anyMatch(row -> row.length != C)) {
-                throw new IllegalArgumentException("Inconsistent row lengths detected.");
-            }
-
-            final int[][] gridArray = grid.toArray(new int[R][C]);
-            return new SolutionInput(gridArray, R, C);
-        } catch (IOException | NullPointerException e) {
-            throw new RuntimeException("Error reading file: " + filename, e);
-        }
+    static SolutionInput parse(String filename) {
+        return new SolutionInput(Grid.parse(Input.open(filename)));
     }
 
     /**
-     * A backtracking solution to solve part 1 of the problem. The backtracking explores all adjoining cells that have
+     * A backtracking solution to solve part 2 of the problem. The backtracking explores all adjoining cells that have
      * a value 1 greater than the current cell. It will visit all of them, and then from there visit all cells that
-     * have a value 1 greater than the current cell, and so on. The number of 9s encountered in the path is the number
+     * have a value 1 greater than the current cell, and so on. The number of 9s encountered in the paths is the number
      * of ways to reach the end from a given starting point.
      *
      * @param grid the grid to traverse
-     * @param r the row of the current cell
-     * @param c the column of the current cell
-     * @param R the number of rows in the grid
-     * @param C the number of columns in the grid
-     * @param memo a memoization map to store the number of ways to reach the end from a given cell. This improves
-     *             performance by avoiding redundant calculations.
-     * @param num9s a set to store the coordinates of all 9s encountered in the path
+     * @param cell the grid index of the current cell
+     * @param memo a memo of the number of ways to reach the end from a given cell. The number of ways from a cell
+     *             doesn't depend on the trailhead the path started from, so the memo is shared by all the trailheads.
      *
-     * @return the number of ways to reach the end from the current cell (r, c)
+     * @return the number of ways to reach the end from the current cell
      */
-    public static int solver(int[][] grid, int r, int c, int R, int C,
-                             Map<Pair<Integer, Integer>, Integer> memo,
-                             Set<Pair<Integer, Integer>> num9s) {
-        var coor = new Pair<>(r, c);
-        if (memo.containsKey(coor)) { return memo.get(coor); }
-        if (grid[r][c] == 9) { num9s.add(coor); return 1; }
-
-        // visit neighbors in all 4 directions
-        final int ways = Arrays.stream(new int[][]{{0, 1}, {1, 0}, {0, -1}, {-1, 0}})
-                .mapToInt(dir -> {
-                    int newR = r + dir[0];
-                    int newC = c + dir[1];
-                    return (newR >= 0 && newR < R && newC >= 0 && newC < C && grid[newR][newC] - grid[r][c] == 1)
-                            ? solver(grid, newR, newC, R, C, memo, num9s)
-                            : 0;
-                })
-                .sum();
-
-        memo.put(coor, ways);
+    public static int solver(Grid grid, int cell, MemoCache memo) {
+        final long memoized = memo.get(cell, -1);
+        if (memoized >= 0) { return (int) memoized; }
+        if (grid.get(cell) == '9') { return 1; }
+
+        // visit neighbors in all 4 directions. The border never is 1 higher than a cell, so there is no bounds check
+        int ways = 0;
+        for (int d = 0; d < 4; d++) {
+            final int next = cell + grid.n4(d);
+            if (grid.get(next) - grid.get(cell) == 1) {
+                ways += solver(grid, next, memo);
+            }
+        }
+
+        memo.put(cell, ways);
 
         return ways;
     }
 
-    private static int solve(String fileName, boolean count9s) {
-        var si = parse(fileName);
-        return IntStream.range(0, si.R)
-                .flatMap(r -> IntStream.range(0, si.C)
-                        .filter(c -> si.grid[r][c] == 0)
-                        .map(c -> {
-                            var memo = new HashMap<Pair<Integer, Integer>, Integer>();
-                            var num9s = new HashSet<Pair<Integer, Integer>>();
-                            int result = solver(si.grid, r, c, si.R, si.C, memo, num9s);
-                            return count9s ? num9s.size() : result;
-                        }))
-                .sum();
+    /**
+     * Part 1 counts the distinct 9s reachable from a trailhead, so unlike the number of ways it depends on the
+     * trailhead. Visit every cell reachable from the trailhead once, marking the 9s.
+     *
+     * @param visited the cells already visited from this trailhead
+     * @param num9s a mask of all the 9s reached from this trailhead
+     */
+    private static void reach9s(Grid grid, int cell, BitSet visited, BitSet num9s) {
+        visited.set(cell);
+        if (grid.get(cell) == '9') { num9s.set(cell); return; }
+
+        for (int d = 0; d < 4; d++) {
+            final int next = cell + grid.n4(d);
+            if (grid.get(next) - grid.get(cell) == 1 && !visited.get(next)) {
+                reach9s(grid, next, visited, num9s);
+            }
+        }
+    }
+
+    private static int[] trailheads(Grid grid) {
+        return IntStream.range(0, grid.rows())
+                .flatMap(r -> IntStream.range(0, grid.cols())
+                        .map(c -> grid.index(r, c))
+                        .filter(cell -> grid.get(cell) == '0'))
+                .toArray();
     }
 
     public static int part2(String filename) {
-        return solve(filename, false);
+        return part2(parse(filename));
+    }
+
+    static int part2(SolutionInput si) {
+        return part2(si, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    static int part2(SolutionInput si, ExecutionStrategy strategy) {
+        final Grid grid = si.grid;
+        final int[] trailheads = trailheads(grid);
+        final var memo = new MemoCache(grid.size());
+        return (int) strategy.sum(0, trailheads.length, i -> solver(grid, trailheads[i], memo));
     }
 
     public static int part1(String filename) {
-        return solve(filename, true);
+        return part1(parse(filename));
     }
+
+    static int part1(SolutionInput si) {
+        return part1(si, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    static int part1(SolutionInput si, ExecutionStrategy strategy) {
+        final Grid grid = si.grid;
+        final int[] trailheads = trailheads(grid);
+        // The visited and 9s masks of a chunk of trailheads, reused after clearing for every trailhead
+        return (int) strategy.sum(0, trailheads.length, () -> new BitSet[]{grid.newMask(), grid.newMask()},
+                (masks, i) -> {
+                    masks[0].clear();
+                    masks[1].clear();
+                    reach9s(grid, trailheads[i], masks[0], masks[1]);
+                    return masks[1].cardinality();
+                });
+    }
+
+    @Override
+    public String puzzleInput() { return "day10/d10.input"; }
+
+    @Override
+    public SolutionInput parseInput(String fileName) { return parse(fileName); }
+
+    @Override
+    public Integer solvePart1(SolutionInput input) { return part1(input); }
+
+    @Override
+    public Integer solvePart2(SolutionInput input) { return part2(input); }
 }
@@ -1,9 +1,9 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.MemoCache;
 import dev.gmathur.utils.Util.Pair;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.util.*;
 
 /**
@@ -29,16 +29,14 @@ import java.util.*;
  * Part 1: 3ms
  * Part 2: 86ms
  */
-public class Day11PlutonianPebbles {
-    private record SolutionInput(String line) { }
-
-    private static SolutionInput parse(String fileName) {
-        try (var reader = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(Day09DiskFragmenter.class.getClassLoader().getResourceAsStream(fileName))))) {
-            return new SolutionInput(reader.readLine());
-        } catch (Exception e) {
-            throw new RuntimeException("Error reading file: " + fileName, e);
-        }
+public class Day11PlutonianPebbles implements Solver<Day11PlutonianPebbles.SolutionInput, Long, Long> {
+    record SolutionInput(List<Long> stones) { }
+
+    static SolutionInput parse(String fileName) {
+        final Input in = Input.open(fileName);
+        final List<Long> stones = new ArrayList<>();
+        while (in.hasNextInt()) { stones.add(in.nextLong()); }
+        return new SolutionInput(Collections.unmodifiableList(stones));
     }
 
     private static boolean canApplyRule1(Long num) {
@@ -68,14 +66,28 @@ public class Day11PlutonianPebbles {
         return stone * 2024;
     }
 
-    private static long solver(long stone, int blinkCount, int blinkLimit, Map<Pair<Long, Long>, Long> memo) {
+    // Enough for the distinct (stone, blinks left) pairs of the puzzle input many times over
+    static final int MEMO_SIZE = 1 << 18;
+
+    // The memo key packs the stone and the number of blinks left, which is less than 128, into a long. The number of
+    // stones a stone turns into depends only on the blinks left, so the memo is shared by all the stones.
+    private static long memoKey(long stone, int blinksLeft) {
+        if ((stone >>> 56) != 0 || blinksLeft >= 128) {
+            throw new ArithmeticException("Stone " + stone + " with " + blinksLeft
+                    + " blinks left does not fit the memo key");
+        }
+        return (stone << 7) | blinksLeft;
+    }
+
+    private static long solver(long stone, int blinkCount, int blinkLimit, MemoCache memo) {
         if (blinkCount == blinkLimit) {
             return 1;
         }
 
-        var key = new Pair<>(stone, (long) blinkCount);
-        if (memo.containsKey(key)) {
-            return memo.get(key);
+        var key = memoKey(stone, blinkLimit - blinkCount);
+        var memoized = memo.get(key, -1);
+        if (memoized >= 0) {
+            return memoized;
         }
 
         long result = 0;
@@ -95,28 +107,37 @@ public class Day11PlutonianPebbles {
         return result;
     }
 
-    private static long driver(String fileName, int times) {
-        var input = parse(fileName);
-        var stones = Arrays.stream(input.line().split(" ")).map(Long::parseLong).toList();
+    private static long driver(SolutionInput input, int times) {
+        var stones = input.stones();
         var result = 0L;
 
+        // Shared by all the stones, which keep splitting into the same small stones
+        var memo = new MemoCache(MEMO_SIZE);
         for (Long stone : stones) {
-            result += solver(stone, 0, times, new HashMap<>());
+            result += solver(stone, 0, times, memo);
         }
         return result;
     }
 
     public static long part2(String fileName) {
-        return driver(fileName, 75);
+        return part2(parse(fileName));
+    }
+
+    static long part2(SolutionInput input) {
+        return driver(input, 75);
     }
 
     public static long part1(String fileName) {
-        return driver(fileName, 25);
+        return part1(parse(fileName));
+    }
+
+    static long part1(SolutionInput input) {
+        return driver(input, 25);
     }
 
     public static int part1Old(String fileName) {
         var input = parse(fileName);
-        var stones = new ArrayDeque<>(Arrays.stream(input.line().split(" ")).map(Long::parseLong).toList());
+        var stones = new ArrayDeque<>(input.stones());
         var times = 25;
 
         for (int i = 0; i < times; i++) {
@@ -136,4 +157,16 @@ public class Day11PlutonianPebbles {
         }
         return stones.size();
     }
+
+    @Override
+    public String puzzleInput() { return "day11/d11.input"; }
+
+    @Override
+    public SolutionInput parseInput(String fileName) { return parse(fileName); }
+
+    @Override
+    public Long solvePart1(SolutionInput input) { return part1(input); }
+
+    @Override
+    public Long solvePart2(SolutionInput input) { return part2(input); }
 }
@@ -1,10 +1,9 @@
 package dev.gmathur.problems;
 
-import dev.gmathur.utils.Util.Pair;
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Grid;
+import dev.gmathur.utils.Input;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.*;
 
 /**
@@ -12,8 +11,9 @@ import java.util.*;
  * https://adventofcode.com/2024/day/12
  *
  * Notes:
- * 1. Both parts use a classic DFS to find the distinct regions in the garden.
- * 2. Part 1 can use the information returned by the DFS to calculate the number of fences needed to enclose each region.
+ * 1. Both parts use a classic BFS to find the distinct regions in the garden.
+ * 2. Part 1 counts the sides of each region's cells that face another region to calculate the number of fences needed
+ * to enclose each region. Once the regions are found, each one is priced independently.
  * 3. For Part 2, the intuition to count the corners was relatively straightforward. However, the implementation was
  * very hard to get right. After a lot of trial and error, I think I have managed to come up with the canonical set
  * of criterion. Implementation-wise it's actually possible to make it more concise, but I think the current
@@ -27,151 +27,161 @@ import java.util.*;
  * Part 1: 21ms
  * Part 2: 16ms
  */
-public class Day12GardenGroups {
-    public record SolutionInput(char[][] garden, int R, int C) {}
+public class Day12GardenGroups implements Solver<Day12GardenGroups.SolutionInput, Long, Long> {
+    public record SolutionInput(Grid garden) {}
 
     public static SolutionInput parse(String fileName) {
-        try (var reader = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(Day09DiskFragmenter.class.getClassLoader().getResourceAsStream(fileName))))) {
-            var garden = reader.lines()
-                    .map(String::toCharArray)
-                    .toArray(char[][]::new);
-
-            final int R = garden.length;
-            final int C = garden[0].length;
-
-            return new SolutionInput(garden, R, C);
-        } catch (IOException e) {
-            throw new RuntimeException("Error reading file: " + fileName, e);
-        }
+        return new SolutionInput(Grid.parse(Input.open(fileName)));
+    }
+
+    /**
+     * All the regions of the garden. The cells of each region are stored one after the other in cells, so region i is
+     * cells[offsets[i]] up to, but not including, cells[offsets[i + 1]].
+     */
+    record Regions(int[] cells, int[] offsets, int count) {
+        int area(final int region) { return offsets[region + 1] - offsets[region]; }
     }
 
     /**
-     * Populates the region of the garden starting at (r, c) with the region character region.
+     * Populates the region of the garden starting at cell start. The region is explored breadth first, using
+     * regionGardens from index from as the queue, so once the search is done it holds all the cells in the region.
      *
-     * @param gardenPlots All the garden plots
-     * @param r We need to start completing a region starting at this row
-     * @param c We need to start completing a region starting at this column
-     * @param R Number of rows in the garden
-     * @param C Number of columns in the garden
-     * @param discovered DFS discovered set
-     * @param fenceAndCount An array of size 2, where the first element is the number of fences needed to complete the
-     *                      region, and the second element is the number of cells in the region
+     * @param garden All the garden plots
+     * @param start We need to start completing a region starting at this cell
+     * @param discovered BFS discovered mask
      * @param region The region character
-     * @param regionGardens A list of all the cells in the region. Populated by this method
+     * @param regionGardens All the cells in the region, in the order they were discovered. Populated by this method
+     * @param from The index in regionGardens to store the first cell of the region at
+     *
+     * @return The index in regionGardens after the last cell of the region
      */
-    private static void populateRegion(final char[][] gardenPlots, final int r, final int c, final int R, final int C,
-                                       final Set<Pair<Integer, Integer>> discovered, final long[] fenceAndCount,
-                                       final char region, final List<Pair<Integer, Integer>> regionGardens) {
-        var coordinate = new Pair<>(r, c);
-
-        discovered.add(coordinate);
-        regionGardens.add(coordinate);
-
-        int[][] dirs = new int[][]{{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
-
-        for (int[] dir : dirs) {
-            int newR = r + dir[0];
-            int newC = c + dir[1];
-            var newCoor = new Pair<>(newR, newC);
-
-            if (!(newR >= 0 && newR < R && newC >= 0 && newC < C && gardenPlots[newR][newC] == region)) {
-                fenceAndCount[0] += 1;
-            } else if (!discovered.contains(newCoor)) {
-                fenceAndCount[1] += 1;
-                populateRegion(gardenPlots, newR, newC, R, C, discovered, fenceAndCount, region, regionGardens);
+    private static int populateRegion(final Grid garden, final int start, final BitSet discovered, final byte region,
+                                      final int[] regionGardens, final int from) {
+        int count = from;
+        discovered.set(start);
+        regionGardens[count++] = start;
+
+        for (int i = from; i < count; i++) {
+            final int cell = regionGardens[i];
+            for (int d = 0; d < 4; d++) {
+                final int next = cell + garden.n4(d);
+                if (garden.get(next) == region && !discovered.get(next)) {
+                    discovered.set(next);
+                    regionGardens[count++] = next;
+                }
             }
         }
+        return count;
     }
 
-    public static int countCorners(List<Pair<Integer, Integer>> regionGardens, char[][] grid, int rows, int cols,
-                                   char region) {
-        int corners = 0;
-        for (Pair<Integer, Integer> coor : regionGardens) {
-            int r = coor.first();
-            int c = coor.second();
-
-            // if the top and left cells are region cells, but the top let cell is not, then this is a corner
-            // ... | X | R | ...
-            // ... | R | R | ...
-            if (r > 0 && c > 0 && grid[r - 1][c] == region && grid[r][c - 1] == region && grid[r - 1][c - 1] != region) {
-                corners++;
-            }
-            // if the top and right cells are region cells, but the top right cell is not, then this is a corner
-            // ... | R | X | ...
-            // ... | R | R | ...
-            if (r > 0 && c < cols - 1 && grid[r - 1][c] == region && grid[r][c + 1] == region && grid[r - 1][c + 1] != region) {
-                corners++;
-            }
-            // if the bottom and left cells are region cells, but the bottom left cell is not, then this is a corner
-            // ... | R | R | ...
-            // ... | X | R | ...
-            if (r < rows - 1 && c > 0 && grid[r + 1][c] == region && grid[r][c - 1] == region && grid[r + 1][c - 1] != region) {
-                corners++;
-            }
-            // if the bottom and right cells are region cells, but the bottom right cell is not, then this is a corner
-            // ... | R | R | ...
-            // ... | R | X | ...
-            if (r < rows - 1 && c < cols - 1 && grid[r + 1][c] == region && grid[r][c + 1] == region && grid[r + 1][c + 1] != region) {
-                corners++;
+    /**
+     * Find all the regions of the garden. This is the only sequential step - once the regions are known, each one is
+     * priced on its own, see {@link #part1(SolutionInput, ExecutionStrategy)}.
+     */
+    static Regions findRegions(final Grid garden) {
+        final BitSet discovered = garden.newMask();
+        final int[] cells = new int[garden.rows() * garden.cols()];
+        final int[] offsets = new int[cells.length + 1];
+        int count = 0;
+        int end = 0;
+
+        for (int r = 0; r < garden.rows(); r++) {
+            for (int c = 0; c < garden.cols(); c++) {
+                final int cell = garden.index(r, c);
+                if (!discovered.get(cell)) {
+                    offsets[count++] = end;
+                    end = populateRegion(garden, cell, discovered, garden.get(cell), cells, end);
+                }
             }
+        }
+        offsets[count] = end;
+        return new Regions(cells, offsets, count);
+    }
 
-            // if the top cell is out of bounds or not region, and left cell is out of bounds or not region
-            if ((r == 0 || grid[r - 1][c] != region) && (c == 0 || grid[r][c - 1] != region)) {
-                corners++;
-            }
-            // if the top cell is out of bounds or not region, and right cell is out of bounds or not region
-            if ((r == 0 || grid[r - 1][c] != region) && (c == cols - 1 || grid[r][c + 1] != region)) {
-                corners++;
-            }
-            // if the bottom cell is out of bounds or not region, and left cell is out of bounds or not region
-            if ((r == rows - 1 || grid[r + 1][c] != region) && (c == 0 || grid[r][c - 1] != region)) {
-                corners++;
+    /**
+     * Count the fences of a region - one for every side of a cell that doesn't face a cell in the same region. The
+     * border is never a region, so cells on the edge of the garden get a fence.
+     */
+    public static int countFences(final int[] regionGardens, final int from, final int to, final Grid grid,
+                                  final byte region) {
+        int fences = 0;
+        for (int i = from; i < to; i++) {
+            for (int d = 0; d < 4; d++) {
+                if (grid.get(regionGardens[i] + grid.n4(d)) != region) { fences++; }
             }
-            // if the bottom cell is out of bounds or not region, and right cell is out of bounds or not region
-            if ((r == rows - 1 || grid[r + 1][c] != region) && (c == cols - 1 || grid[r][c + 1] != region)) {
-                corners++;
+        }
+        return fences;
+    }
+
+    /**
+     * Count the corners of a region. For every cell, and every pair of directions d and d + 90 degrees clockwise -
+     * if neither neighbour is in the region it's an outer corner
+     * ... | X | ...
+     * ... | R | X | ...
+     * and if both neighbours are in the region, but the diagonal between them is not, it's an inner corner
+     * ... | R | X | ...
+     * ... | R | R | ...
+     * The border is never part of a region, so the cells on the edge of the garden need no special handling.
+     */
+    public static int countCorners(final int[] regionGardens, final int from, final int to, final Grid grid,
+                                   final byte region) {
+        int corners = 0;
+        for (int i = from; i < to; i++) {
+            final int cell = regionGardens[i];
+            for (int d = 0; d < 4; d++) {
+                final boolean first = grid.get(cell + grid.n4(d)) == region;
+                final boolean second = grid.get(cell + grid.n4((d + 1) & 3)) == region;
+                final boolean diagonal = grid.get(cell + grid.n8(2 * d + 1)) == region;
+
+                if (!first && !second) { corners++; }
+                if (first && second && !diagonal) { corners++; }
             }
         }
         return corners;
     }
 
     public static long part2(SolutionInput si) {
-        var discovered = new HashSet<Pair<Integer, Integer>>();
-        var totalPrices = 0L;
-
-        for (int r = 0; r < si.R; r++) {
-            for (int c = 0; c < si.C; c++) {
-                if (!discovered.contains(new Pair<>(r, c))) {
-                    long[] fenceAndCount = new long[]{0, 1};
-                    List<Pair<Integer, Integer>> regionGardens = new ArrayList<>();
-
-                    populateRegion(si.garden, r, c, si.R, si.C, discovered, fenceAndCount, si.garden[r][c], regionGardens);
-                    // We'll ignore the fence count and just count the corners. The number of corners is the same as
-                    // the number of sides of the region
-                    int corners = countCorners(regionGardens, si.garden, si.R, si.C, si.garden[r][c]);
-                    totalPrices += corners * fenceAndCount[1];
-                }
-            }
-        }
-        return totalPrices;
+        return part2(si, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    public static long part2(SolutionInput si, ExecutionStrategy strategy) {
+        final Grid garden = si.garden;
+        final Regions regions = findRegions(garden);
+        final int[] cells = regions.cells();
+
+        // The number of corners is the same as the number of sides of the region
+        return strategy.sum(0, regions.count(), i -> {
+            final int from = regions.offsets()[i];
+            final int to = regions.offsets()[i + 1];
+            return (long) regions.area(i) * countCorners(cells, from, to, garden, garden.get(cells[from]));
+        });
     }
 
     public static long part1(SolutionInput si) {
-        var discovered = new HashSet<Pair<Integer, Integer>>();
-        var totalPrices = 0L;
+        return part1(si, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
 
-        for (int r = 0; r < si.R; r++) {
-            for (int c = 0; c < si.C; c++) {
-                if (!discovered.contains(new Pair<>(r, c))) {
-                    long[] fenceAndCount = new long[]{0, 1};
-                    List<Pair<Integer, Integer>> regionGardens = new ArrayList<>();
+    public static long part1(SolutionInput si, ExecutionStrategy strategy) {
+        final Grid garden = si.garden;
+        final Regions regions = findRegions(garden);
+        final int[] cells = regions.cells();
 
-                    populateRegion(si.garden, r, c, si.R, si.C, discovered, fenceAndCount, si.garden[r][c], regionGardens);
-                    totalPrices += fenceAndCount[0] * fenceAndCount[1];
-                }
-            }
-        }
-        return totalPrices;
+        return strategy.sum(0, regions.count(), i -> {
+            final int from = regions.offsets()[i];
+            final int to = regions.offsets()[i + 1];
+            return (long) regions.area(i) * countFences(cells, from, to, garden, garden.get(cells[from]));
+        });
     }
+
+    @Override
+    public String puzzleInput() { return "day12/d12.input"; }
+
+    @Override
+    public SolutionInput parseInput(String fileName) { return parse(fileName); }
+
+    @Override
+    public Long solvePart1(SolutionInput input) { return part1(input); }
+
+    @Override
+    public Long solvePart2(SolutionInput input) { return part2(input); }
 }
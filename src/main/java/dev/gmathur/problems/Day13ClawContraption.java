@@ -1,15 +1,11 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Input;
 import dev.gmathur.utils.Util;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Solution for Day 13 - Claw Contraption
@@ -20,57 +16,26 @@ import java.util.regex.Pattern;
  * 2. Solution for part 1 and part 2 turned out to exactly the same. I was expecting the part 2 number too be too large
  * and needing to use a BigInteger. But the number fit into a double, same as part 1.
  * 3. Parsing turned out to be hard, esp. the part figuring out the regular expressions to use to extract the integers
- * from each input line. Beefed-up my knowledge of regexes too in the process (it being admittedly poor :-))
+ * from each input line. Beefed-up my knowledge of regexes too in the process (it being admittedly poor :-)). The
+ * parser now just reads the six numbers of each machine off the mapped input, skipping everything in between.
  *
  * Runtimes:
  *
  * Part 1: 1ms
  * Part 2: 3ms
  */
-public class Day13ClawContraption {
+public class Day13ClawContraption implements Solver<Day13ClawContraption.SolutionInput, Double, Double> {
     public record SingleInput(int buttonAX, int buttonAY, int buttonBX, int buttonBY, int prizeX, int prizeY) { }
     public record SolutionInput(List<SingleInput> inputs) { }
 
     public static SolutionInput parse(String filename) {
+        final Input in = Input.open(filename);
         final List<SingleInput> inputs = new ArrayList<>();
-        Pattern buttonPattern = Pattern.compile("X\\+(\\d+),\\s*Y\\+(\\d+)");
-        Pattern prizePattern = Pattern.compile("X\\=(\\d+),\\s*Y\\=(\\d+)");
-
-        try(BufferedReader reader = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(Day13ClawContraption.class.getClassLoader().getResourceAsStream(filename))))) {
-            while (reader.ready()) {
-
-                String line = reader.readLine();
-
-                Matcher matcher = buttonPattern.matcher(line);
-                if (!matcher.find()) {
-                    throw new RuntimeException("Invalid input format");
-                }
-                int buttonAX = Integer.parseInt(matcher.group(1));
-                int buttonAY = Integer.parseInt(matcher.group(2));
-
-                line = reader.readLine();
-                matcher = buttonPattern.matcher(line);
-                if (!matcher.find()) {
-                    throw new RuntimeException("Invalid input format");
-                }
-                int buttonBX = Integer.parseInt(matcher.group(1));
-                int buttonBY = Integer.parseInt(matcher.group(2));
-
-                line = reader.readLine();
-                matcher = prizePattern.matcher(line);
-                if (!matcher.find()) {
-                    throw new RuntimeException("Invalid input format");
-                }
-                int prizeX = Integer.parseInt(matcher.group(1));
-                int prizeY = Integer.parseInt(matcher.group(2));
-
-                inputs.add(new SingleInput(buttonAX, buttonAY, buttonBX, buttonBY, prizeX, prizeY));
-                // skip a line
-                reader.readLine();
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error reading file: " + filename, e);
+
+        // Each machine is six numbers: button A's X and Y, button B's X and Y and the prize's X and Y
+        while (in.hasNextInt()) {
+            inputs.add(new SingleInput(in.nextInt(), in.nextInt(), in.nextInt(), in.nextInt(), in.nextInt(),
+                    in.nextInt()));
         }
         return new SolutionInput(inputs);
     }
@@ -90,25 +55,56 @@ public class Day13ClawContraption {
 
     }
 
-    private static double solve(SolutionInput si, double offset) {
-        return si.inputs.stream()
-                .map(input -> solve(
-                        input.buttonAX, input.buttonAY,
-                        input.buttonBX, input.buttonBY,
-                        input.prizeX + offset,
-                        input.prizeY + offset
-                ))
-                // filter out solutions that are not whole numbers
-                .filter(solution -> solution.first() % 1 == 0 && solution.second() % 1 == 0)
-                .mapToDouble(solution -> solution.first() * 3 + solution.second())
-                .sum();
+    // The tokens for every machine are a whole number, and are summed as longs so that the total is exact and doesn't
+    // depend on the order the machines are added up in
+    private static double solve(SolutionInput si, double offset, ExecutionStrategy strategy) {
+        return strategy.sum(0, si.inputs.size(), i -> {
+            final SingleInput input = si.inputs.get(i);
+            final var solution = solve(
+                    input.buttonAX, input.buttonAY,
+                    input.buttonBX, input.buttonBY,
+                    input.prizeX + offset,
+                    input.prizeY + offset
+            );
+            // skip solutions that are not whole numbers
+            if (solution.first() % 1 != 0 || solution.second() % 1 != 0) { return 0; }
+            return (long) (solution.first() * 3 + solution.second());
+        });
     }
 
     public static double part1(String fileName) {
-        return solve(parse(fileName), 0);
+        return part1(parse(fileName));
+    }
+
+    public static double part1(SolutionInput si) {
+        return part1(si, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    public static double part1(SolutionInput si, ExecutionStrategy strategy) {
+        return solve(si, 0, strategy);
     }
 
     public static double part2(String fileName) {
-        return solve(parse(fileName), 1e13);
+        return part2(parse(fileName));
+    }
+
+    public static double part2(SolutionInput si) {
+        return part2(si, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
     }
+
+    public static double part2(SolutionInput si, ExecutionStrategy strategy) {
+        return solve(si, 1e13, strategy);
+    }
+
+    @Override
+    public String puzzleInput() { return "day13/d13.input"; }
+
+    @Override
+    public SolutionInput parseInput(String fileName) { return parse(fileName); }
+
+    @Override
+    public Double solvePart1(SolutionInput input) { return part1(input); }
+
+    @Override
+    public Double solvePart2(SolutionInput input) { return part2(input); }
 }
@@ -1,15 +1,12 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.FrameRecorder;
+import dev.gmathur.utils.Input;
 import dev.gmathur.utils.Util.Pair;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -27,45 +24,38 @@ import java.util.stream.Collectors;
  * a subset of the robots. From there I tried two approaches -
  * - the first one - canBeTree() - was to find all grids with a row with K robots. This did me a result but it took a
  * while to figure out that I needed to go up to 10000 "seconds" to find the tree. Nevertheless, even with this approach
- * there were not too many generated candidate grids (writeGridToFile()) so it was not all that bad
+ * there were not too many generated candidate grids (recorded with FrameRecorder) so it was not all that bad
  * - the second one - canBeTree2() - was to find all grids that have a KxK block of robots. With this approach, with
  * seconds set to 10000, the algorithm only produces a single candidate grid, which is the answer. This turns out to
  * a more effective way to find the tree. The runtime for this approach is much faster than the first approach.
- * 3. Check out the discovered tree in the file day14_output_7686.txt in resources/day14
+ * 3. Run with -Daoc.frames=<dir> to record every candidate grid, tagged with its second, to day14.frames.gz in that
+ *    directory, and look for the tree there
  *
  * Runtimes:
  * Part 1: 1ms
  * Part 2: 286ms (with canBeTree2()) and 1780ms (with canBeTree2())
  */
-public class Day14RestroomRedoubt {
+public class Day14RestroomRedoubt implements Solver<Day14RestroomRedoubt.SolutionInput, Integer, Integer> {
     public record Position(int x, int y) {}
     public record Velocity(int dx, int dy) {}
     public record SolutionInput(List<Pair<Position, Velocity>> robots) {}
 
+    static final int PUZZLE_GRID_X = 101;
+    static final int PUZZLE_GRID_Y = 103;
+
     public static SolutionInput parse(final String filename) {
-        try (var reader = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(Day14RestroomRedoubt.class.getClassLoader().getResourceAsStream(filename))))) {
-
-            final Pattern pattern = Pattern.compile("p=(\\-?\\d+),(\\-?\\d+)\\s+v=(\\-?\\d+),(\\-?\\d+)");
-
-            final var robots = reader.lines()
-                    .map(line -> {
-                        Matcher matcher = pattern.matcher(line);
-                        if (!matcher.find()) {
-                            throw new RuntimeException("Invalid input format");
-                        }
-                        int x = Integer.parseInt(matcher.group(1));
-                        int y = Integer.parseInt(matcher.group(2));
-                        int dx = Integer.parseInt(matcher.group(3));
-                        int dy = Integer.parseInt(matcher.group(4));
-                        return new Pair<>(new Position(x, y), new Velocity(dx, dy));
-                    })
-                    // create mutable list
-                    .collect(Collectors.toList());
-            return new SolutionInput(robots);
-        } catch (Exception e) {
-            throw new RuntimeException("Error reading file: " + filename, e);
+        final Input in = Input.open(filename);
+        // create mutable list
+        final List<Pair<Position, Velocity>> robots = new ArrayList<>();
+        // "p=x,y v=dx,dy"
+        while (in.hasNextInt()) {
+            int x = in.nextSignedInt();
+            int y = in.nextSignedInt();
+            int dx = in.nextSignedInt();
+            int dy = in.nextSignedInt();
+            robots.add(new Pair<>(new Position(x, y), new Velocity(dx, dy)));
         }
+        return new SolutionInput(robots);
     }
 
     public static Position move(final Position position, final Velocity velocity, final int gridXMax,
@@ -98,33 +88,6 @@ public class Day14RestroomRedoubt {
         return quadrants[0] * quadrants[1] * quadrants[2] * quadrants[3];
     }
 
-    public static void writeGridToFile(List<Position> coordinates, int xMax, int yMax, String fileName) {
-        char[][] grid = new char[yMax][xMax];
-
-        for (int y = 0; y < yMax; y++) {
-            for (int x = 0; x < xMax; x++) {
-                grid[y][x] = '.';
-            }
-        }
-
-        for (Position p : coordinates) {
-            if (p.x >= 0 && p.x < xMax && p.y >= 0 && p.y < yMax) {
-                grid[p.y][p.x] = '*';
-            }
-        }
-
-        try (var writer = new PrintWriter(fileName)) {
-            for (int y = 0; y < yMax; y++) {
-                for (int x = 0; x < xMax; x++) {
-                    writer.print(grid[y][x]);
-                }
-                writer.println();
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error writing to file: " + fileName, e);
-        }
-    }
-
     // This is a better method to find candidate grid that might have a christmas tree. Its based on the premise that
     // a christmas tree like structure would have some clustering of robots in a grid. So, we find a sub-grid of size
     // KxK that has all cells occupied by robots. If such a grid exists, then we have a candidate grid that might have
@@ -176,11 +139,26 @@ public class Day14RestroomRedoubt {
         return false;
     }
 
-    public static void part2(final String filename, final int gridXMax, final int gridYMax) {
-        final var si = parse(filename);
+    public static int part2(final String filename, final int gridXMax, final int gridYMax) {
+        try (FrameRecorder recorder = FrameRecorder.open("day14", gridYMax, gridXMax)) {
+            return part2(parse(filename), gridXMax, gridYMax, recorder);
+        }
+    }
+
+    /**
+     * Move the robots one second at a time and look for a grid that might contain the christmas tree.
+     *
+     * @param recorder If enabled, every candidate grid is recorded, tagged with its second, and the search runs for
+     *                 all TRY_SECONDS. Otherwise the search stops at the first candidate.
+     * @return The number of seconds after which the first candidate grid was found, or -1 if there was none
+     */
+    public static int part2(final SolutionInput si, final int gridXMax, final int gridYMax,
+                            final FrameRecorder recorder) {
         final var robots = si.robots();
         final var TRY_SECONDS = 10000;
         final var CLUSTER_SIZE = 3; // 3x3
+        final byte[] frame = new byte[gridYMax * gridXMax];
+        int firstCandidate = -1;
 
         for (int j = 0; j < TRY_SECONDS; j++) {
             for (int i = 0; i < robots.size(); i++) {
@@ -194,17 +172,22 @@ public class Day14RestroomRedoubt {
             //        CLUSTER_SIZE)) {
             if (canBeTree2(robots.stream().map(Pair::first).collect(Collectors.toList()), gridXMax, gridYMax,
                     CLUSTER_SIZE)) {
-                writeGridToFile(
-                        robots.stream()
-                                .map(Pair::first)
-                                .collect(Collectors.toList()),
-                        gridXMax, gridYMax, "day14_output_" + j + ".txt");
+                // j + 1 seconds have elapsed after this iteration
+                if (firstCandidate == -1) { firstCandidate = j + 1; }
+                if (!recorder.enabled()) { break; }
+                Arrays.fill(frame, (byte) '.');
+                for (var robot : robots) { frame[robot.first().y() * gridXMax + robot.first().x()] = '*'; }
+                recorder.frame(j + 1, frame);
             }
         }
+        return firstCandidate;
     }
 
     public static int part1(final String filename, final int gridXMax, final int gridYMax) {
-        final var si = parse(filename);
+        return part1(parse(filename), gridXMax, gridYMax);
+    }
+
+    public static int part1(final SolutionInput si, final int gridXMax, final int gridYMax) {
         final var robots = si.robots();
         final var SECONDS = 100;
 
@@ -218,6 +201,20 @@ public class Day14RestroomRedoubt {
         }
         return evaluate(robots, gridXMax, gridYMax);
     }
-}
 
+    @Override
+    public String puzzleInput() { return "day14/d14.dat"; }
+
+    @Override
+    public SolutionInput parseInput(String fileName) { return parse(fileName); }
+
+    @Override
+    public Integer solvePart1(SolutionInput input) { return part1(input, PUZZLE_GRID_X, PUZZLE_GRID_Y); }
 
+    @Override
+    public Integer solvePart2(SolutionInput input) { return part2(input, PUZZLE_GRID_X, PUZZLE_GRID_Y, FrameRecorder.DISABLED); }
+
+    // Both parts move the robots in the parsed input
+    @Override
+    public boolean mutatesInput() { return true; }
+}
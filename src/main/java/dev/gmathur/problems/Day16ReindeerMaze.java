@@ -1,195 +1,137 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.Coords;
+import dev.gmathur.utils.Grid;
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.LongHeap;
+import dev.gmathur.utils.LongLongMap;
 import dev.gmathur.utils.Util.Direction;
-import dev.gmathur.utils.Util.Pair;
-import dev.gmathur.utils.Util.Triple;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.util.*;
+import java.util.BitSet;
 
 import static dev.gmathur.utils.Util.printGrid;
 
-public class Day16ReindeerMaze {
-    private record SolutionInput(char[][] maze, Pair<Integer, Integer> start, Pair<Integer, Integer> end) { }
-    private record MoveInfo(Pair<Integer, Integer> nextCell, Direction dir, long cost) { }
-    private static SolutionInput parse(String fileName) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(Day16ReindeerMaze.class.getClassLoader().getResourceAsStream(fileName))))) {
-
-            List<char[]> mazeList = new ArrayList<>();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                mazeList.add(line.toCharArray());
-            }
-            // drop the first and last rows
-            mazeList.removeFirst();
-            mazeList.removeLast();
-
-            Pair<Integer, Integer> start = null;
-            Pair<Integer, Integer> end = null;
-
-            char[][] maze = new char[mazeList.size()][mazeList.get(0).length - 2];
-            for (int i = 0; i < mazeList.size(); i++) {
-                for (int j = 1; j < mazeList.get(i).length - 1; j++) {
-                    maze[i][j - 1] = mazeList.get(i)[j];
-                    if (maze[i][j - 1] == 'S') {
-                        start = new Pair<>(i, j - 1);
-                    } else if (maze[i][j - 1] == 'E') {
-                        end = new Pair<>(i, j - 1);
-                    }
-                }
-            }
+public class Day16ReindeerMaze implements Solver<Day16ReindeerMaze.SolutionInput, Long, Long> {
+    // The maze is kept with its outer walls, and cells are grid indices
+    record SolutionInput(Grid maze, int start, int end) { }
+    private static final long STEP_COST = 1;
+    private static final long TURN_COST = 1000;
 
-            return new SolutionInput(maze, start, end);
-        } catch (Exception e) {
-            throw new RuntimeException("Error reading file: " + fileName, e);
-        }
+    static SolutionInput parse(String fileName) {
+        final Grid maze = Grid.parse(Input.open(fileName));
+        return new SolutionInput(maze, maze.find((byte) 'S'), maze.find((byte) 'E'));
     }
 
     /**
-     * Given a cell curr, return the next cells that can be reached from curr and the cost to reach them. At each cell,
-     * there are three options: move forward, turn right, and turn left. The cost to move forward is 1, and the cost to
-     * turn right or left is 1000.
-     *
-     * @param maze The problem maze. We need it to check if the next cell is a wall or not
-     * @param R Number of rows in the maze
-     * @param C Number of columns in the maze
-     * @param curr The current cell
-     * @param dir The direction the reindeer is facing
+     * Dijkstra's algorithm from the start cell, facing east, over the {@link Coords#state(int, int)} states. From each
+     * state there are three options: move forward, at a cost of 1, and turn right or left, at a cost of 1000.
+     * <p>
+     * The queue is a heap of longs, each the cost to reach a state shifted above the packed state, so nothing is
+     * allocated per state.
      *
-     * @return A list of MoveInfo objects that contain the next cell, the direction to reach it, and the cost to reach
-     * it
+     * @param dist Filled with the shortest distance from the start to every reachable state
+     * @return The minimum distance from the start cell to the end cell, from any direction
      */
-    private static List<MoveInfo> getNextCellWithCost(final char[][] maze, final int R, final int C,
-                                                      final Pair<Integer, Integer> curr, final Direction dir) {
-        int row = curr.first();
-        int col = curr.second();
-        List<MoveInfo> nextCells = new ArrayList<>();
-        switch (dir) {
-            case NORTH -> {
-                // . ^ .
-                // < ^ >
-                // . . .
-                if (row - 1 >= 0 && maze[row - 1][col] != '#') { // Continue moving north as one of the options
-                    nextCells.add(new MoveInfo(new Pair<>(row - 1, col), Direction.NORTH, 1));
-                }
-                nextCells.add(new MoveInfo(curr, Direction.EAST, 1000)); // turn right as another
-                nextCells.add(new MoveInfo(curr, Direction.WEST, 1000)); // and turn left as another
-            }
-            case EAST -> {
-                // . ^ .
-                // . > >
-                // . v .
-                if (col + 1 < C && maze[row][col + 1] != '#') {
-                    nextCells.add(new MoveInfo(new Pair<>(row, col + 1), Direction.EAST, 1));
-                }
-                nextCells.add(new MoveInfo(curr, Direction.SOUTH, 1000));
-                nextCells.add(new MoveInfo(curr, Direction.NORTH, 1000));
-            }
-            case SOUTH -> {
-                // . . .
-                // < V >
-                // . V .
-                if (row + 1 < R && maze[row + 1][col] != '#') {
-                    nextCells.add(new MoveInfo(new Pair<>(row+1, col), Direction.SOUTH, 1));
-                }
-                nextCells.add(new MoveInfo(curr, Direction.WEST, 1000));
-                nextCells.add(new MoveInfo(curr, Direction.EAST, 1000));
+    private static long shortestDistances(final SolutionInput si, final LongLongMap dist) {
+        final Grid maze = si.maze;
+        final int shift = 64 - Long.numberOfLeadingZeros(Coords.state(maze.size() - 1, 3));
+        final long stateMask = (1L << shift) - 1;
+        final LongHeap pq = new LongHeap(maze.size());
+        pq.push(Coords.state(si.start, Direction.EAST.ordinal()));
+        long minDist = Long.MAX_VALUE;
+
+        while (!pq.isEmpty()) {
+            final long top = pq.pop();
+            final long curr = top & stateMask;
+            final long currDist = top >>> shift;
+            if (dist.containsKey(curr)) { continue; }
+
+            // we have a new shortest path from start to <cell, dir>
+            dist.put(curr, currDist);
+            final int cell = Coords.cell(curr), dir = Coords.dir(curr);
+
+            // note that we can reach the end cell from potentially multiple directions, so that's why we don't break
+            // as soon as we reach the end cell
+            if (cell == si.end) {
+                minDist = Math.min(minDist, currDist);
             }
-            case WEST -> {
-                // . ^ .
-                // < < .
-                // . v .
-                if (col - 1 >= 0 && maze[row][col - 1] != '#') {
-                    nextCells.add(new MoveInfo(new Pair<>(row, col - 1), Direction.WEST, 1));
-                }
-                nextCells.add(new MoveInfo(curr, Direction.NORTH, 1000));
-                nextCells.add(new MoveInfo(curr, Direction.SOUTH, 1000));
+
+            // . ^ .
+            // < ^ >
+            // . . .
+            // The maze has walls all around, so moving forward never steps off the grid
+            final int forward = cell + maze.n4(dir);
+            if (maze.get(forward) != '#') {
+                push(pq, dist, Coords.state(forward, dir), currDist + STEP_COST, shift);
             }
+            push(pq, dist, Coords.state(cell, dir + 1), currDist + TURN_COST, shift); // turn right
+            push(pq, dist, Coords.state(cell, dir + 3), currDist + TURN_COST, shift); // and turn left
         }
-        return nextCells;
+
+        return minDist;
     }
 
-    public record PQState(Pair<Integer, Integer> cell, long cost, Direction dir, List<Pair<Integer, Integer>> path)
-            implements Comparable<PQState> {
-        @Override
-        public int compareTo(PQState o) {
-            return Long.compare(cost, o.cost);
+    private static void push(final LongHeap pq, final LongLongMap dist, final long state, final long cost,
+                             final int shift) {
+        if (dist.containsKey(state)) { return; }
+        if (cost >>> (63 - shift) != 0) {
+            throw new IllegalStateException("The cost " + cost + " doesn't fit in a queue entry");
         }
+        pq.push(cost << shift | state);
     }
 
     public static long part2(String fileName, boolean debugPrint) {
-        var si = parse(fileName);
-
-        var R = si.maze.length;
-        var C = si.maze[0].length;
-
-        // The shortest path from the start cell to each of the <row, col, Direction> tuples
-        final HashMap<Pair<Pair<Integer, Integer>, Direction>, Long> dist = new HashMap<>();
-
-        PriorityQueue<PQState> pq = new PriorityQueue<>();
-
-        pq.add(new PQState(si.start, 0L, Direction.EAST, new ArrayList<>()));
-        long minDist = Long.MAX_VALUE;
-        Set<List<Pair<Integer, Integer>>> shortestPaths = new HashSet<>();
-
-        while (!pq.isEmpty()) {
-            final var curr = pq.poll();
-            final var currCell = curr.cell();
-            final var currDist = curr.cost();
-            final var currDir = curr.dir();
-
-            // we have a new shortest path from start to <r, c, dir>
-            dist.put(new Pair<>(currCell, currDir), currDist);
+        return part2(parse(fileName), debugPrint);
+    }
 
-            // note that we can reach the end cell from potentially multiple directions, so that's why we don't break
-            // as soon as we reach the end cell
-            if (currCell.equals(si.end)) {
-                if (currDist < minDist) {
-                    minDist = currDist;
-                    shortestPaths.clear();
-                    shortestPaths.add(curr.path());
-                } else if (currDist == minDist) {
-                    shortestPaths.add(curr.path());
-                }
-            }
+    /**
+     * The cells on any of the shortest paths. Rather than carrying its path with every state, the paths are rebuilt
+     * from the distances: walking back from the end, the state before a state on a shortest path is on one too if its
+     * distance plus the cost of the move between them is the later state's distance.
+     */
+    static long part2(SolutionInput si, boolean debugPrint) {
+        final Grid maze = si.maze;
+        // The shortest path from the start cell to each of the <cell, Direction> states
+        final LongLongMap dist = new LongLongMap(maze.size() * 4);
+        final long minDist = shortestDistances(si, dist);
+
+        // The states on a shortest path that are yet to be walked back from, each pushed once
+        final long[] stack = new long[maze.size() * 4];
+        final BitSet seen = new BitSet(maze.size() * 4);
+        int top = 0;
+        for (int d = 0; d < 4; d++) {
+            top = pushIfOnPath(stack, top, seen, dist, Coords.state(si.end, d), minDist);
+        }
 
-            final var nextCells = getNextCellWithCost(si.maze, R, C, currCell, currDir);
-            for (var nextCell : nextCells) {
-                var next = nextCell.nextCell();
-                var nextDir = nextCell.dir();
-                var nextCost = nextCell.cost();
-
-                if (!dist.containsKey(new Pair<>(next, nextDir))) {
-                    // if we moved forward, we add the cell to the path
-                    List<Pair<Integer, Integer>> newPath = new ArrayList<>(curr.path());
-                    if (nextDir == currDir) {
-                        newPath.add(next);
-                    }
-                    pq.add(new PQState(next, currDist + nextCost, nextDir, newPath));
-                }
-            }
+        // find all the distinct cells in the shortest paths, the start cell included
+        final BitSet distinctCoords = maze.newMask();
+        while (top > 0) {
+            final long curr = stack[--top];
+            final int cell = Coords.cell(curr), dir = Coords.dir(curr);
+            final long currDist = dist.get(curr, Long.MIN_VALUE);
+            distinctCoords.set(cell);
+            // moved forward from the cell behind, or turned in the cell
+            top = pushIfOnPath(stack, top, seen, dist, Coords.state(cell - maze.n4(dir), dir), currDist - STEP_COST);
+            top = pushIfOnPath(stack, top, seen, dist, Coords.state(cell, dir + 1), currDist - TURN_COST);
+            top = pushIfOnPath(stack, top, seen, dist, Coords.state(cell, dir + 3), currDist - TURN_COST);
         }
 
         if (debugPrint) {
-            for (var path : shortestPaths) {
-                char[][] mazeCopy = new char[si.maze.length][];
-                for (int i = 0; i < si.maze.length; i++) {
-                    mazeCopy[i] = Arrays.copyOf(si.maze[i], si.maze[i].length);
-                }
-                for (var cell : path) { mazeCopy[cell.first()][cell.second()] = '*'; }
-                printGrid(mazeCopy);
-            }
+            Grid mazeCopy = maze.copy();
+            distinctCoords.stream().forEach(cell -> mazeCopy.set(cell, (byte) '*'));
+            printGrid(mazeCopy.toCharArray());
         }
 
-        // find all the distinct coordinates in the shortest paths
-        Set<Pair<Integer, Integer>> distinctCoords = new HashSet<>();
-        for (var path : shortestPaths) {
-            distinctCoords.addAll(path);
-        }
+        return distinctCoords.cardinality();
+    }
 
-        return distinctCoords.size() + 1; // add 1 to account for the start cell
+    private static int pushIfOnPath(final long[] stack, int top, final BitSet seen, final LongLongMap dist,
+                                    final long state, final long expected) {
+        if (!seen.get((int) state) && dist.get(state, Long.MIN_VALUE) == expected) {
+            seen.set((int) state);
+            stack[top++] = state;
+        }
+        return top;
     }
 
     /**
@@ -200,49 +142,23 @@ public class Day16ReindeerMaze {
      * @return The minimum distance from the start cell to the end cell
      */
     public static long part1(String fileName) {
-        var si = parse(fileName);
-
-        var R = si.maze.length;
-        var C = si.maze[0].length;
-
-        // The shortest path from the start cell to each of the <row, col, Direction> tuples
-        final HashMap<Pair<Pair<Integer, Integer>, Direction>, Long> dist = new HashMap<>();
-
-        PriorityQueue<Triple<Pair<Integer, Integer>, Long, Direction>> pq =
-                new PriorityQueue<>(Comparator.comparing(Triple::second));
-
-        pq.add(new Triple<>(si.start, 0L, Direction.EAST));
-        long minDist = Long.MAX_VALUE;
+        return part1(parse(fileName));
+    }
 
-        while (!pq.isEmpty()) {
-            final var curr = pq.poll();
-            final var currCell = curr.first();
-            final var currDist = curr.second();
-            final var currDir = curr.third();
+    static long part1(SolutionInput si) {
+        // The shortest path from the start cell to each of the <cell, Direction> states
+        return shortestDistances(si, new LongLongMap(si.maze.size() * 4));
+    }
 
-            if (dist.containsKey(new Pair<>(currCell, currDir))) { continue; }
+    @Override
+    public String puzzleInput() { return "day16/d16.dat"; }
 
-            // we have a new shortest path from start to <r, c, dir>
-            dist.put(new Pair<>(currCell, currDir), currDist);
+    @Override
+    public SolutionInput parseInput(String fileName) { return parse(fileName); }
 
-            // note that we can reach the end cell from potentially multiple directions, so that's why we don't break
-            // as soon as we reach the end cell
-            if (currCell.equals(si.end)) {
-                minDist = Math.min(minDist, currDist);
-            }
+    @Override
+    public Long solvePart1(SolutionInput input) { return part1(input); }
 
-            final var nextCells = getNextCellWithCost(si.maze, R, C, currCell, currDir);
-            for (var nextCell : nextCells) {
-                var next = nextCell.nextCell();
-                var nextDir = nextCell.dir();
-                var nextCost = nextCell.cost();
-
-                if (!dist.containsKey(new Pair<>(next, nextDir))) {
-                    pq.add(new Triple<>(next, currDist + nextCost, nextDir));
-                }
-            }
-        }
-
-        return minDist;
-    }
-}
\ No newline at end of file
+    @Override
+    public Long solvePart2(SolutionInput input) { return part2(input, false); }
+}
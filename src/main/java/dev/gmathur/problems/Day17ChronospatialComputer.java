@@ -1,4 +1,4 @@
 package dev.gmathur.problems;
 
-public class D17ChronospatialComputer {
+public class Day17ChronospatialComputer {
 }
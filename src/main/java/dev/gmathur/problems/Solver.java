@@ -0,0 +1,56 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.utils.Util.AocResult;
+
+/**
+ * The common interface implemented by the solution of every day. A solution is split into three steps - parse the
+ * input file, then solve part 1 and part 2 from the parsed input.
+ * <p>
+ * Implementations are discovered by {@link SolverRunner} through {@link java.util.ServiceLoader}, so every
+ * implementation needs a public no-arg constructor and an entry in META-INF/services/dev.gmathur.problems.Solver.
+ * Solvers that mutate the parsed input while solving a part must override {@link #mutatesInput()}, so that the input is
+ * parsed again for part 2.
+ *
+ * @param <I> The parsed input
+ * @param <A> The part 1 answer
+ * @param <B> The part 2 answer
+ */
+public interface Solver<I, A, B> {
+    /**
+     * @return The name of the puzzle input file for this day, in the form accepted by {@link #parseInput(String)}
+     */
+    String puzzleInput();
+
+    I parseInput(String fileName);
+
+    A solvePart1(I input);
+
+    B solvePart2(I input);
+
+    /**
+     * @return The day number, taken from the DayNN prefix of the class name
+     */
+    default int day() {
+        return Integer.parseInt(getClass().getSimpleName().substring(3, 5));
+    }
+
+    /**
+     * @return The puzzle name, taken from the class name after the DayNN prefix
+     */
+    default String name() {
+        return getClass().getSimpleName().substring(5);
+    }
+
+    /**
+     * @return True if solving a part modifies the parsed input, in which case each part needs its own parsed input
+     */
+    default boolean mutatesInput() {
+        return false;
+    }
+
+    default AocResult<A, B> solve(String fileName) {
+        final I input = parseInput(fileName);
+        final A part1 = solvePart1(input);
+        return new AocResult<>(part1, solvePart2(mutatesInput() ? parseInput(fileName) : input));
+    }
+}
@@ -0,0 +1,129 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.utils.Util.AocResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the solvers for all days, found through {@link ServiceLoader}, on a configurable executor and reports the
+ * parse, part 1 and part 2 time of every day and the total wall time of the run.
+ * <p>
+ * Usage: SolverRunner [sequential|platform|virtual] [threads]
+ * <ul>
+ *     <li>sequential - run the days one after the other on the calling thread</li>
+ *     <li>platform - run the days on a fixed pool of platform threads, one per core unless threads is given</li>
+ *     <li>virtual - run every day on its own virtual thread</li>
+ * </ul>
+ * Each day runs its parse, part 1 and part 2 steps in order, so the days, not the parts, are the unit of concurrency.
+ */
+public class SolverRunner {
+    public enum Executor { SEQUENTIAL, PLATFORM, VIRTUAL }
+
+    public record DayReport(int day, String name, AocResult<?, ?> result, long parseNanos, long part1Nanos,
+                            long part2Nanos) {
+        public long totalNanos() { return parseNanos + part1Nanos + part2Nanos; }
+
+        @Override
+        public String toString() {
+            return String.format("Day %02d %-22s parse: %9.3fms part1: %9.3fms part2: %9.3fms | %s, %s",
+                    day, name, parseNanos / 1e6, part1Nanos / 1e6, part2Nanos / 1e6, result.part1(), result.part2());
+        }
+    }
+
+    public record RunReport(List<DayReport> days, long wallNanos) {
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+            days.forEach(d -> sb.append(d).append(System.lineSeparator()));
+            final long sumNanos = days.stream().mapToLong(DayReport::totalNanos).sum();
+            sb.append(String.format("Total wall time: %.3fms (sum of days: %.3fms)", wallNanos / 1e6, sumNanos / 1e6));
+            return sb.toString();
+        }
+    }
+
+    /**
+     * @return All the registered solvers, ordered by day
+     */
+    public static List<Solver<?, ?, ?>> discover() {
+        final List<Solver<?, ?, ?>> solvers = new ArrayList<>();
+        ServiceLoader.load(Solver.class).forEach(solvers::add);
+        solvers.sort(Comparator.comparingInt(Solver::day));
+        return solvers;
+    }
+
+    /**
+     * Run a single solver on its puzzle input, timing each of its steps.
+     */
+    public static <I, A, B> DayReport run(final Solver<I, A, B> solver) {
+        return run(solver, solver.puzzleInput());
+    }
+
+    /**
+     * Run a single solver on the given input, timing each of its steps.
+     */
+    public static <I, A, B> DayReport run(final Solver<I, A, B> solver, final String fileName) {
+        long start = System.nanoTime();
+        I input = solver.parseInput(fileName);
+        long parseNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        final A part1 = solver.solvePart1(input);
+        final long part1Nanos = System.nanoTime() - start;
+
+        if (solver.mutatesInput()) {
+            start = System.nanoTime();
+            input = solver.parseInput(fileName);
+            parseNanos += System.nanoTime() - start;
+        }
+
+        start = System.nanoTime();
+        final B part2 = solver.solvePart2(input);
+        final long part2Nanos = System.nanoTime() - start;
+
+        return new DayReport(solver.day(), solver.name(), new AocResult<>(part1, part2), parseNanos, part1Nanos,
+                part2Nanos);
+    }
+
+    public static RunReport runAll(final List<Solver<?, ?, ?>> solvers, final Executor executor, final int threads) {
+        final long start = System.nanoTime();
+        final List<DayReport> reports = new ArrayList<>();
+
+        if (executor == Executor.SEQUENTIAL) {
+            solvers.forEach(solver -> reports.add(run(solver)));
+        } else {
+            try (ExecutorService service = executor == Executor.VIRTUAL
+                    ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newFixedThreadPool(threads)) {
+                final List<Future<DayReport>> futures = new ArrayList<>();
+                solvers.forEach(solver -> futures.add(service.submit(() -> run(solver))));
+                for (Future<DayReport> future : futures) {
+                    reports.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        return new RunReport(reports, System.nanoTime() - start);
+    }
+
+    public static void main(String[] args) {
+        final Executor executor = args.length > 0
+                ? Executor.valueOf(args[0].toUpperCase(Locale.ROOT))
+                : Executor.PLATFORM;
+        final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println(runAll(discover(), executor, threads));
+    }
+}
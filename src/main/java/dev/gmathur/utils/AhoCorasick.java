@@ -0,0 +1,98 @@
+package dev.gmathur.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An Aho-Corasick automaton over a set of byte patterns, as a DFA: a trie of the patterns, with the failure links
+ * folded into a full 256-way transition table. After every byte of the text, the automaton is at the node for the
+ * longest suffix of the text that is a prefix of some pattern, so a scan costs one table lookup per byte however many
+ * patterns there are.
+ * <p>
+ * Every pattern that ends at a position of the text is a suffix of the node's string there - the node's own pattern,
+ * if it has one, and those of the nodes on its chain of failure links. To count every pattern's matches, a scan
+ * counts the visits to each node, and {@link #patternCounts(long[])} then adds each node's visits to its failure
+ * link's, deepest nodes first, which is one pass over the nodes instead of a walk up the chain at every byte.
+ */
+public final class AhoCorasick {
+    public static final int ROOT = 0;
+
+    // next[node << 8 | byte] is the node after the byte
+    private final int[] next;
+    private final int[] fail;
+    // The nodes in breadth first order, so every node comes after its failure link
+    private final int[] order;
+    // The node at the end of each pattern
+    private final int[] terminal;
+    // The pattern that ends at a node, or at the nearest node on its failure chain that has one, or -1
+    private final int[] output;
+
+    public AhoCorasick(final List<byte[]> patterns) {
+        final int maxNodes = 1 + patterns.stream().mapToInt(p -> p.length).sum();
+        final int[] trie = new int[maxNodes << 8];
+        Arrays.fill(trie, -1);
+        final int[] own = new int[maxNodes];
+        Arrays.fill(own, -1);
+        terminal = new int[patterns.size()];
+        int nodes = 1;
+        for (int p = 0; p < patterns.size(); p++) {
+            int node = ROOT;
+            for (byte b : patterns.get(p)) {
+                final int edge = node << 8 | (b & 0xff);
+                if (trie[edge] < 0) { trie[edge] = nodes++; }
+                node = trie[edge];
+            }
+            terminal[p] = node;
+            if (own[node] < 0) { own[node] = p; }
+        }
+
+        // Breadth first, so a node's failure link is complete before its children's are computed
+        next = Arrays.copyOf(trie, nodes << 8);
+        fail = new int[nodes];
+        order = new int[nodes];
+        output = Arrays.copyOf(own, nodes);
+        int head = 0, tail = 1;
+        order[0] = ROOT;
+        while (head < tail) {
+            final int node = order[head++];
+            for (int b = 0; b < 256; b++) {
+                final int child = next[node << 8 | b];
+                if (child < 0) {
+                    next[node << 8 | b] = node == ROOT ? ROOT : next[fail[node] << 8 | b];
+                } else {
+                    fail[child] = node == ROOT ? ROOT : next[fail[node] << 8 | b];
+                    if (output[child] < 0) { output[child] = output[fail[child]]; }
+                    order[tail++] = child;
+                }
+            }
+        }
+    }
+
+    public static AhoCorasick of(final List<String> patterns) {
+        return new AhoCorasick(patterns.stream().map(p -> p.getBytes(StandardCharsets.ISO_8859_1)).toList());
+    }
+
+    public int nodes() { return fail.length; }
+
+    public int next(final int node, final byte b) { return next[node << 8 | (b & 0xff)]; }
+
+    /**
+     * @return A pattern that ends at the node, its own or the longest one that is a suffix of its string, or -1
+     */
+    public int output(final int node) { return output[node]; }
+
+    /**
+     * @param visits The number of times a scan was at each node, indexed by node
+     * @return The number of matches of each pattern, indexed by pattern. Patterns that are the same string have the
+     * same count.
+     */
+    public long[] patternCounts(final long[] visits) {
+        final long[] total = Arrays.copyOf(visits, nodes());
+        for (int i = order.length - 1; i > 0; i--) { total[fail[order[i]]] += total[order[i]]; }
+        // The root is the empty suffix of every node, not a match
+        final long[] counts = new long[terminal.length];
+        for (int p = 0; p < terminal.length; p++) { counts[p] = terminal[p] == ROOT ? 0 : total[terminal[p]]; }
+        return counts;
+    }
+}
@@ -0,0 +1,53 @@
+package dev.gmathur.utils;
+
+/**
+ * Packs coordinates and search states into a single long, so they can be used as keys in {@link LongSet},
+ * {@link LongIntMap} and {@link LongLongMap} without boxing.
+ * <ul>
+ *   <li>{@link #pack(int, int)} - a (row, col) pair. Both halves keep their sign.</li>
+ *   <li>{@link #pack(int, int, int)} - a (row, col, direction) state, with row and col in 30 bits each and the
+ *   direction in the low 2 bits.</li>
+ *   <li>{@link #state(int, int)} - a (grid index, direction) state, for searches over a {@link Grid}.</li>
+ * </ul>
+ */
+public final class Coords {
+    private static final int COORD_BITS = 30;
+    private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+
+    private Coords() { }
+
+    public static long pack(final int row, final int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    public static int row(final long packed) { return (int) (packed >> 32); }
+
+    public static int col(final long packed) { return (int) packed; }
+
+    /**
+     * Pack a (row, col, direction) state. Row and col must fit in 30 bits as signed values, and the direction is 0 to
+     * 3, e.g. a {@link Util.Direction} ordinal.
+     */
+    public static long pack(final int row, final int col, final int dir) {
+        return ((row & COORD_MASK) << (COORD_BITS + 2)) | ((col & COORD_MASK) << 2) | (dir & 3);
+    }
+
+    public static int stateRow(final long packed) {
+        return (int) (packed << 2 >> (COORD_BITS + 4));
+    }
+
+    public static int stateCol(final long packed) {
+        return (int) ((packed >>> 2) << (64 - COORD_BITS) >> (64 - COORD_BITS));
+    }
+
+    public static int dir(final long packed) { return (int) (packed & 3); }
+
+    /**
+     * Pack a (grid index, direction) state.
+     */
+    public static long state(final int cell, final int dir) {
+        return ((long) cell << 2) | (dir & 3);
+    }
+
+    public static int cell(final long state) { return (int) (state >>> 2); }
+}
@@ -0,0 +1,146 @@
+package dev.gmathur.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * How a solution runs the independent iterations of its outer loop - the reports, the equations, the trailheads. The
+ * loop is an index range, and its result is the sum of what every iteration returns.
+ * <p>
+ * The range is split into chunks of grain iterations, and every chunk runs on one thread with its own state from the
+ * state supplier, e.g. a scratch mask, so the iterations of a chunk can reuse it without synchronising.
+ * <ul>
+ *     <li>SEQUENTIAL - the whole range on the calling thread, as a single chunk</li>
+ *     <li>PARALLEL_STREAM - the chunks as a parallel stream</li>
+ *     <li>FORK_JOIN - the range split in halves by a recursive fork-join task, down to chunks of grain iterations</li>
+ *     <li>VIRTUAL_THREADS - every chunk on its own virtual thread</li>
+ * </ul>
+ * The strategy is selected at runtime with the aoc.execution system property, e.g. -Daoc.execution=fork_join, and the
+ * grain with aoc.execution.grain. The default grain splits the range in 8 chunks per core of the common pool.
+ */
+public enum ExecutionStrategy {
+    SEQUENTIAL, PARALLEL_STREAM, FORK_JOIN, VIRTUAL_THREADS;
+
+    public static final String PROPERTY = "aoc.execution";
+    public static final String GRAIN_PROPERTY = "aoc.execution.grain";
+
+    /**
+     * The body of a loop, called with the state of the chunk it runs in and the index of the iteration.
+     */
+    @FunctionalInterface
+    public interface Body<S> {
+        long apply(S state, int index);
+    }
+
+    /**
+     * @return The strategy named by the aoc.execution system property, or fallback if it's not set
+     */
+    public static ExecutionStrategy configured(final ExecutionStrategy fallback) {
+        final String name = System.getProperty(PROPERTY);
+        return name == null || name.isBlank() ? fallback : valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    static int grain(final int iterations) {
+        final int grain = Integer.getInteger(GRAIN_PROPERTY, 0);
+        if (grain > 0) { return grain; }
+        return Math.max(1, iterations / (ForkJoinPool.getCommonPoolParallelism() * 8));
+    }
+
+    /**
+     * @return The sum of body(i) for i in [from, to)
+     */
+    public long sum(final int from, final int to, final IntToLongFunction body) {
+        return sum(from, to, () -> null, (state, i) -> body.applyAsLong(i));
+    }
+
+    /**
+     * @return The number of i in [from, to) for which the predicate is true
+     */
+    public int count(final int from, final int to, final IntPredicate predicate) {
+        return (int) sum(from, to, i -> predicate.test(i) ? 1 : 0);
+    }
+
+    /**
+     * @return The sum of body(state, i) for i in [from, to), with a state from the supplier for every chunk
+     */
+    public <S> long sum(final int from, final int to, final Supplier<S> state, final Body<S> body) {
+        if (from >= to) { return 0; }
+        final int grain = grain(to - from);
+        final int chunks = (int) (((long) to - from + grain - 1) / grain);
+
+        return switch (this) {
+            case SEQUENTIAL -> chunk(from, to, state, body);
+            case PARALLEL_STREAM -> IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToLong(k -> chunk(from + k * grain, (int) Math.min(to, (long) from + (long) (k + 1) * grain),
+                            state, body))
+                    .sum();
+            case FORK_JOIN -> ForkJoinPool.commonPool().invoke(new SumTask<>(from, to, grain, state, body));
+            case VIRTUAL_THREADS -> {
+                try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    final List<Future<Long>> futures = new ArrayList<>(chunks);
+                    for (int k = 0; k < chunks; k++) {
+                        final int start = from + k * grain;
+                        final int end = (int) Math.min(to, (long) start + grain);
+                        futures.add(executor.submit(() -> chunk(start, end, state, body)));
+                    }
+                    long sum = 0;
+                    for (Future<Long> future : futures) { sum += future.get(); }
+                    yield sum;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException re) { throw re; }
+                    if (e.getCause() instanceof Error error) { throw error; }
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        };
+    }
+
+    private static <S> long chunk(final int from, final int to, final Supplier<S> state, final Body<S> body) {
+        final S s = state.get();
+        long sum = 0;
+        for (int i = from; i < to; i++) { sum += body.apply(s, i); }
+        return sum;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class SumTask<S> extends RecursiveTask<Long> {
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final Supplier<S> state;
+        private final Body<S> body;
+
+        SumTask(final int from, final int to, final int grain, final Supplier<S> state, final Body<S> body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.state = state;
+            this.body = body;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= grain) { return chunk(from, to, state, body); }
+            final int mid = (from + to) >>> 1;
+            final SumTask<S> left = new SumTask<>(from, mid, grain, state, body);
+            left.fork();
+            final long right = new SumTask<>(mid, to, grain, state, body).compute();
+            return right + left.join();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package dev.gmathur.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records the frames of a grid animation, e.g. the warehouse after every move of the robot, to a single gzip
+ * compressed file per run.
+ * <p>
+ * Recording is off unless the aoc.frames system property names a directory, so solutions can always record and pay
+ * nothing for it - {@link #open(String, int, int)} then returns a recorder that ignores its frames. With the property
+ * set, a recording named day15 is written to day15.frames.gz in that directory.
+ * <p>
+ * The format is big-endian, inside a gzip stream -
+ * <pre>
+ *   header:    "AOCF" version:u8 rows:u32 cols:u32
+ *   frame:     'K' tag:varint cells:u8[rows * cols]              a keyframe, all cells in row-major order
+ *            | 'D' tag:varint count:varint (gap:varint cell:u8)*  the cells that changed since the previous frame
+ * </pre>
+ * The tag is a number chosen by the caller, like the move or the second the frame is for. A changed cell's index is
+ * the previous changed cell's index plus gap, starting from -1, and varints are unsigned LEB128. The first frame is a
+ * keyframe, and so is any frame where most of the cells changed, which is smaller than a delta.
+ * <p>
+ * A recorder is not thread-safe.
+ */
+public final class FrameRecorder implements AutoCloseable {
+    public static final String PROPERTY = "aoc.frames";
+    public static final String SUFFIX = ".frames.gz";
+    public static final FrameRecorder DISABLED = new FrameRecorder();
+
+    private static final byte[] MAGIC = {'A', 'O', 'C', 'F'};
+    private static final int VERSION = 1;
+    private static final byte KEYFRAME = 'K';
+    private static final byte DELTA = 'D';
+
+    public record Frame(int tag, byte[] cells) { }
+
+    private final Path path;
+    private final DataOutputStream out;
+    private final byte[] previous;
+    private final byte[] current;
+    private final int rows;
+    private final int cols;
+    private boolean first = true;
+
+    private FrameRecorder() {
+        this.path = null;
+        this.out = null;
+        this.previous = null;
+        this.current = null;
+        this.rows = 0;
+        this.cols = 0;
+    }
+
+    private FrameRecorder(final Path path, final int rows, final int cols) throws IOException {
+        this.path = path;
+        this.rows = rows;
+        this.cols = cols;
+        this.previous = new byte[rows * cols];
+        this.current = new byte[rows * cols];
+
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        final OutputStream stream = Channels.newOutputStream(channel);
+        this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(stream, 1 << 16), 1 << 16));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(rows);
+        out.writeInt(cols);
+    }
+
+    /**
+     * @return A recorder writing name.frames.gz to the directory in the aoc.frames system property, or
+     * {@link #DISABLED} if the property is not set
+     */
+    public static FrameRecorder open(final String name, final int rows, final int cols) {
+        final String directory = System.getProperty(PROPERTY);
+        if (directory == null || directory.isBlank()) { return DISABLED; }
+        try {
+            Files.createDirectories(Path.of(directory));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error creating directory: " + directory, e);
+        }
+        return open(Path.of(directory, name + SUFFIX), rows, cols);
+    }
+
+    /**
+     * @return A recorder writing to the given file, regardless of the aoc.frames system property
+     */
+    public static FrameRecorder open(final Path path, final int rows, final int cols) {
+        try {
+            return new FrameRecorder(path, rows, cols);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error opening file: " + path, e);
+        }
+    }
+
+    public boolean enabled() { return out != null; }
+
+    /**
+     * Record the rows x cols window of the grid with its top left cell at (top, left).
+     */
+    public void frame(final int tag, final Grid grid, final int top, final int left) {
+        if (!enabled()) { return; }
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) { current[r * cols + c] = grid.get(top + r, left + c); }
+        }
+        write(tag);
+    }
+
+    /**
+     * Record a frame of rows x cols cells in row-major order.
+     */
+    public void frame(final int tag, final byte[] cells) {
+        if (!enabled()) { return; }
+        if (cells.length != current.length) {
+            throw new IllegalArgumentException("Expected " + current.length + " cells, got " + cells.length);
+        }
+        System.arraycopy(cells, 0, current, 0, cells.length);
+        write(tag);
+    }
+
+    private void write(final int tag) {
+        try {
+            int changed = 0;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] != previous[i]) { changed++; }
+            }
+            // A changed cell costs at least two bytes in a delta, and one in a keyframe
+            if (first || 2 * changed >= current.length) {
+                out.writeByte(KEYFRAME);
+                writeVarint(tag);
+                out.write(current);
+                first = false;
+            } else {
+                out.writeByte(DELTA);
+                writeVarint(tag);
+                writeVarint(changed);
+                int last = -1;
+                for (int i = 0; i < current.length; i++) {
+                    if (current[i] != previous[i]) {
+                        writeVarint(i - last);
+                        out.writeByte(current[i]);
+                        last = i;
+                    }
+                }
+            }
+            System.arraycopy(current, 0, previous, 0, current.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing file: " + path, e);
+        }
+    }
+
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    @Override
+    public void close() {
+        if (!enabled()) { return; }
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error closing file: " + path, e);
+        }
+    }
+
+    /**
+     * Read back all the frames of a recording, each with all of its cells.
+     */
+    public static List<Frame> read(final Path path) {
+        try (InputStream stream = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)))) {
+            final byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.readUnsignedByte() != VERSION) {
+                throw new IllegalArgumentException("Not a frame recording: " + path);
+            }
+            final int size = in.readInt() * in.readInt();
+
+            final List<Frame> frames = new ArrayList<>();
+            byte[] cells = new byte[size];
+            int type;
+            while ((type = in.read()) != -1) {
+                final int tag = readVarint(in);
+                cells = cells.clone();
+                if (type == KEYFRAME) {
+                    in.readFully(cells);
+                } else if (type == DELTA) {
+                    int index = -1;
+                    for (int n = readVarint(in); n > 0; n--) {
+                        index += readVarint(in);
+                        cells[index] = in.readByte();
+                    }
+                } else {
+                    throw new IllegalArgumentException("Invalid frame type " + type + " in " + path);
+                }
+                frames.add(new Frame(tag, cells));
+            }
+            return frames;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading file: " + path, e);
+        }
+    }
+
+    private static int readVarint(final DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final int b = in.read();
+            if (b == -1) { throw new EOFException("Truncated varint"); }
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) { return value; }
+        }
+    }
+}
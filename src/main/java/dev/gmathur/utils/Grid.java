@@ -0,0 +1,145 @@
+package dev.gmathur.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A grid of bytes stored row-major in a single flat array. Cells are addressed by their index in that array, and
+ * moving to a neighbour is adding one of the precomputed offsets from {@link #n4(int)} or {@link #n8(int)} to the
+ * index.
+ * <p>
+ * The grid is surrounded by a one cell wide border of {@link #BORDER} bytes. A walk that steps off the grid lands on
+ * the border instead of going out of bounds, so the hot loops only need to compare the byte they land on, and never
+ * check the row and column. Puzzle inputs are ASCII, so {@link #BORDER} never collides with a real cell.
+ * <p>
+ * Per-cell state, like the cells visited by a walk, is kept in a {@link BitSet} indexed by the same cell index - see
+ * {@link #newMask()}.
+ */
+public final class Grid {
+    public static final byte BORDER = 0;
+
+    // Directions for n4, in the same order as Util.Direction
+    public static final int NORTH = 0;
+    public static final int EAST = 1;
+    public static final int SOUTH = 2;
+    public static final int WEST = 3;
+
+    private final int R;
+    private final int C;
+    private final int stride;
+    private final byte[] cells;
+    // N, E, S, W
+    private final int[] n4;
+    // N, NE, E, SE, S, SW, W, NW, so that n8[2 * d] == n4[d] and n8[2 * d + 1] is the diagonal clockwise of d
+    private final int[] n8;
+
+    /**
+     * Create an R x C grid with every cell set to fill.
+     */
+    public Grid(final int R, final int C, final byte fill) {
+        this(R, C, new byte[(R + 2) * (C + 2)]);
+        for (int r = 0; r < R; r++) {
+            Arrays.fill(cells, index(r, 0), index(r, C - 1) + 1, fill);
+        }
+    }
+
+    private Grid(final int R, final int C, final byte[] cells) {
+        this.R = R;
+        this.C = C;
+        this.stride = C + 2;
+        this.cells = cells;
+        this.n4 = new int[]{-stride, 1, stride, -1};
+        this.n8 = new int[]{-stride, -stride + 1, 1, stride + 1, stride, stride - 1, -1, -stride - 1};
+    }
+
+    /**
+     * Read a grid from the input, one row per line, up to the first blank line or the end of the input. The cursor is
+     * left at the start of the blank line.
+     */
+    public static Grid parse(final Input in) {
+        final int start = in.position();
+        final int C = in.lineLength();
+        int R = 0;
+        while (in.hasRemaining() && !in.atBlankLine()) {
+            if (in.lineLength() != C) {
+                throw new IllegalArgumentException("Inconsistent row lengths detected at row " + R);
+            }
+            in.skipLine();
+            R++;
+        }
+
+        in.position(start);
+        final Grid grid = new Grid(R, C, new byte[(R + 2) * (C + 2)]);
+        for (int r = 0; r < R; r++) { in.nextRow(grid.cells, grid.index(r, 0)); }
+        return grid;
+    }
+
+    public int rows() { return R; }
+
+    public int cols() { return C; }
+
+    /**
+     * @return The distance between vertically adjacent cells
+     */
+    public int stride() { return stride; }
+
+    /**
+     * @return The number of indices, including the border. Masks and per-cell arrays should be this big.
+     */
+    public int size() { return cells.length; }
+
+    public int index(final int r, final int c) { return (r + 1) * stride + c + 1; }
+
+    public int row(final int index) { return index / stride - 1; }
+
+    public int col(final int index) { return index % stride - 1; }
+
+    /**
+     * @return The offset to the neighbour in direction d, with d one of {@link #NORTH}, {@link #EAST}, {@link #SOUTH}
+     * or {@link #WEST}
+     */
+    public int n4(final int d) { return n4[d]; }
+
+    /**
+     * @return The offset to the neighbour in direction d, clockwise from 0 = north to 7 = north-west
+     */
+    public int n8(final int d) { return n8[d]; }
+
+    public byte get(final int index) { return cells[index]; }
+
+    public byte get(final int r, final int c) { return cells[index(r, c)]; }
+
+    public void set(final int index, final byte value) { cells[index] = value; }
+
+    public void set(final int r, final int c, final byte value) { cells[index(r, c)] = value; }
+
+    public boolean isBorder(final int index) { return cells[index] == BORDER; }
+
+    /**
+     * @return The index of the first cell, in row-major order, holding value or -1 if there is none
+     */
+    public int find(final byte value) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == value) { return i; }
+        }
+        return -1;
+    }
+
+    /**
+     * @return A mask with one bit per index, all clear
+     */
+    public BitSet newMask() { return new BitSet(cells.length); }
+
+    public Grid copy() { return new Grid(R, C, cells.clone()); }
+
+    /**
+     * @return The cells, without the border, as chars. Useful for printing.
+     */
+    public char[][] toCharArray() {
+        final char[][] rows = new char[R][C];
+        for (int r = 0; r < R; r++) {
+            for (int c = 0; c < C; c++) { rows[r][c] = (char) cells[index(r, c)]; }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,26 @@
+package dev.gmathur.utils;
+
+/**
+ * Helpers shared by the open-addressing collections {@link LongSet}, {@link LongIntMap} and {@link LongLongMap}.
+ * <p>
+ * The tables have a power of two capacity and use linear probing. The key 0 marks a free slot, so an entry for the
+ * key 0 is kept outside the table.
+ */
+final class HashCommon {
+    static final float LOAD_FACTOR = 0.5f;
+    static final int MIN_CAPACITY = 16;
+
+    private HashCommon() { }
+
+    // Spread the bits of the key, so that packed coordinates that differ only in their high bits don't collide
+    static int mix(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int capacityFor(final int expected) {
+        final long needed = Math.max(MIN_CAPACITY, (long) Math.ceil(expected / LOAD_FACTOR));
+        if (needed > (1 << 30)) { throw new IllegalArgumentException("Too many entries: " + expected); }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
@@ -0,0 +1,315 @@
+package dev.gmathur.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A puzzle input file, memory-mapped through {@link FileChannel#map}, with a cursor that reads numbers and grid rows
+ * directly from the mapped bytes. Nothing is decoded into Strings, so parsing allocates only what the parsed
+ * representation itself needs.
+ * <p>
+ * Inputs are ASCII. The number readers skip over any bytes that cannot start a number, which covers all the
+ * separators used in the puzzle inputs (spaces, commas, '|', ': ', "X+", "p=" and so on) without the caller
+ * having to know them. Lines end with '\n' or "\r\n".
+ * <p>
+ * A single mapping is limited to 2GB. Larger files can be processed in windows with {@link #map(Path, long, long)}.
+ * An Input is a cursor and is not thread-safe, but {@link #slice(int, int)} gives independent cursors over the same
+ * mapped bytes.
+ */
+public final class Input {
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int limit;
+    private int pos;
+
+    private Input(final ByteBuffer buffer, final int start, final int limit) {
+        this.buffer = buffer;
+        this.start = start;
+        this.limit = limit;
+        this.pos = start;
+    }
+
+    /**
+     * Open an input by name. The name is either a path to a file, e.g. src/main/resources/day1/input.lst, or the
+     * name of a classpath resource, e.g. day6/d6.input.
+     */
+    public static Input open(final String name) {
+        final Path path = Path.of(name);
+        if (Files.isRegularFile(path)) { return map(path); }
+
+        final URL url = Input.class.getClassLoader().getResource(name);
+        if (url == null) { throw new IllegalArgumentException("No such file or resource: " + name); }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return map(Path.of(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("Invalid resource location: " + url, e);
+            }
+        }
+        // A resource that is not a plain file, e.g. inside a jar, cannot be mapped
+        try (InputStream is = url.openStream()) {
+            return wrap(is.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading resource: " + name, e);
+        }
+    }
+
+    public static Input map(final Path path) {
+        try {
+            return map(path, 0, Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading file: " + path, e);
+        }
+    }
+
+    /**
+     * Map length bytes of the file starting at offset.
+     */
+    public static Input map(final Path path, final long offset, final long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot map more than 2GB at once, got " + length + " bytes");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            return new Input(buffer, 0, (int) length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error mapping file: " + path, e);
+        }
+    }
+
+    public static Input wrap(final byte[] bytes) {
+        return new Input(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /**
+     * @return An independent cursor over the bytes in [from, to) of this input, with positions relative to this input
+     */
+    public Input slice(final int from, final int to) {
+        if (from < 0 || to > length() || from > to) {
+            throw new IndexOutOfBoundsException("Slice [" + from + ", " + to + ") of input of length " + length());
+        }
+        return new Input(buffer, start + from, start + to);
+    }
+
+    /**
+     * Split the input into at most parts slices of about equal length, each ending after a '\n' or at the end of the
+     * input, so no line is split between two slices. Lines longer than a part make for fewer, longer slices.
+     */
+    public Input[] splitLines(final int parts) {
+        if (parts < 1) { throw new IllegalArgumentException("Parts must be positive, got " + parts); }
+        final List<Input> slices = new ArrayList<>(parts);
+        int from = 0;
+        for (int k = 1; k <= parts && from < length(); k++) {
+            int to = k == parts ? length() : Math.max(from, (int) ((long) length() * k / parts));
+            while (to < length() && (to == 0 || get(to - 1) != '\n')) { to++; }
+            if (to > from) { slices.add(slice(from, to)); }
+            from = to;
+        }
+        return slices.toArray(new Input[0]);
+    }
+
+    public int length() { return limit - start; }
+
+    public int position() { return pos - start; }
+
+    public void position(final int position) { pos = start + position; }
+
+    public boolean hasRemaining() { return pos < limit; }
+
+    public byte peek() { return buffer.get(pos); }
+
+    public byte next() { return buffer.get(pos++); }
+
+    /**
+     * @return The byte at the given position, without moving the cursor
+     */
+    public byte get(final int position) { return buffer.get(start + position); }
+
+    /**
+     * @return True if the cursor is at the end of a line or at the end of the input
+     */
+    public boolean atEol() {
+        if (pos >= limit) { return true; }
+        final byte b = buffer.get(pos);
+        return b == '\n' || b == '\r';
+    }
+
+    /**
+     * @return True if the cursor is at an empty line, e.g. the separator between the two sections of an input
+     */
+    public boolean atBlankLine() {
+        return pos < limit && atEol();
+    }
+
+    /**
+     * Move the cursor to the start of the next line.
+     */
+    public void skipLine() {
+        while (pos < limit && buffer.get(pos) != '\n') { pos++; }
+        if (pos < limit) { pos++; }
+    }
+
+    /**
+     * @return The number of bytes from the cursor to the end of the current line
+     */
+    public int lineLength() {
+        int end = pos;
+        while (end < limit && buffer.get(end) != '\n' && buffer.get(end) != '\r') { end++; }
+        return end - pos;
+    }
+
+    /**
+     * Copy the rest of the current line into dst at offset, and move the cursor to the start of the next line.
+     *
+     * @return The number of bytes copied
+     */
+    public int nextRow(final byte[] dst, final int offset) {
+        final int length = lineLength();
+        buffer.get(pos, dst, offset, length);
+        pos += length;
+        skipLine();
+        return length;
+    }
+
+    /**
+     * @return The rest of the current line as bytes. The cursor moves to the start of the next line.
+     */
+    public byte[] nextRow() {
+        final byte[] row = new byte[lineLength()];
+        nextRow(row, 0);
+        return row;
+    }
+
+    /**
+     * @return The rest of the current line as chars. The cursor moves to the start of the next line.
+     */
+    public char[] nextCharRow() {
+        final char[] row = new char[lineLength()];
+        for (int i = 0; i < row.length; i++) { row[i] = (char) buffer.get(pos++); }
+        skipLine();
+        return row;
+    }
+
+    /**
+     * @return The remaining lines as a grid of bytes, one row per line
+     */
+    public byte[][] nextRows() {
+        final List<byte[]> rows = new ArrayList<>();
+        while (hasRemaining()) { rows.add(nextRow()); }
+        return rows.toArray(new byte[0][]);
+    }
+
+    /**
+     * @return True if there is another unsigned number in the input. Skips everything up to the number.
+     */
+    public boolean hasNextInt() {
+        while (pos < limit && !isDigit(buffer.get(pos))) { pos++; }
+        return pos < limit;
+    }
+
+    /**
+     * @return True if there is another unsigned number on the current line. Skips everything up to the number, but
+     * not past the end of the line.
+     */
+    public boolean hasNextIntOnLine() {
+        while (pos < limit) {
+            final byte b = buffer.get(pos);
+            if (isDigit(b)) { return true; }
+            if (b == '\n' || b == '\r') { return false; }
+            pos++;
+        }
+        return false;
+    }
+
+    public int nextInt() {
+        return Math.toIntExact(nextLong());
+    }
+
+    public int nextSignedInt() {
+        return Math.toIntExact(nextSignedLong());
+    }
+
+    /**
+     * @return The next unsigned number. Any bytes before it, including a '-', are skipped.
+     */
+    public long nextLong() {
+        if (!hasNextInt()) { throw new IllegalStateException("No more numbers at position " + position()); }
+        return digits();
+    }
+
+    /**
+     * @return The next number, negative if it is immediately preceded by a '-'. Any other bytes before it are skipped.
+     */
+    public long nextSignedLong() {
+        if (!hasNextInt()) { throw new IllegalStateException("No more numbers at position " + position()); }
+        final boolean negative = pos > start && buffer.get(pos - 1) == '-';
+        final long value = digits();
+        return negative ? -value : value;
+    }
+
+    private long digits() {
+        long value = 0;
+        byte b;
+        while (pos < limit && isDigit(b = buffer.get(pos))) {
+            value = value * 10 + (b - '0');
+            pos++;
+        }
+        return value;
+    }
+
+    private static boolean isDigit(final byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * @return A read-only buffer over the bytes of the input, from its start to its end. No bytes are copied.
+     */
+    public ByteBuffer asByteBuffer() {
+        return buffer.slice(start, limit - start).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return A view of the input as ASCII characters, e.g. for use with {@link java.util.regex.Pattern}. No bytes
+     * are copied.
+     */
+    public CharSequence asCharSequence() {
+        return new AsciiView(start, limit);
+    }
+
+    private final class AsciiView implements CharSequence {
+        private final int from;
+        private final int to;
+
+        AsciiView(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public int length() { return to - from; }
+
+        @Override
+        public char charAt(final int index) { return (char) (buffer.get(from + index) & 0xff); }
+
+        @Override
+        public CharSequence subSequence(final int s, final int e) { return new AsciiView(from + s, from + e); }
+
+        @Override
+        public String toString() {
+            final byte[] bytes = new byte[to - from];
+            buffer.get(from, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package dev.gmathur.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The opcodes of an {@link InstructionSet}, compiled into a DFA that finds their instructions in one pass over the
+ * memory, with the same matches as a regex alternation of the instructions would find.
+ * <p>
+ * The names are an {@link AhoCorasick} automaton, so a byte that doesn't continue a name moves to the longest suffix of
+ * the bytes so far that starts another name, in one lookup. After a name, or after bytes that end with a name, a '('
+ * switches to the opcode's operands, which are counted rather than stored in the automaton. A byte that doesn't fit
+ * the operands starts over from the root - the operands and '(' can't be part of a name, and the instruction set has
+ * no name that ends another, so no other instruction can have started since the name did.
+ * <p>
+ * A scanner is immutable and can be shared. Every scan has its own {@link Cursor}, which can be fed the memory in
+ * pieces of any size.
+ *
+ * @param <S> The state the instructions act on
+ */
+public final class InstructionScanner<S> {
+    private static final int ROOT = AhoCorasick.ROOT;
+
+    // The names, in the order of the opcodes, so a name's pattern is its opcode
+    private final AhoCorasick names;
+    private final int[] arity;
+    private final int[] maxDigits;
+    private final InstructionSet.Effect<S>[] effects;
+    private final int maxArity;
+
+    @SuppressWarnings("unchecked")
+    InstructionScanner(final List<InstructionSet.Opcode<S>> opcodes) {
+        // A node's output is the name that ends there, or the name that ends its string, e.g. "ab" for "b" when "abc"
+        // and "b" are names. No name ends another, so there is only one.
+        names = AhoCorasick.of(opcodes.stream().map(InstructionSet.Opcode::name).toList());
+        arity = opcodes.stream().mapToInt(InstructionSet.Opcode::arity).toArray();
+        maxDigits = opcodes.stream().mapToInt(InstructionSet.Opcode::maxDigits).toArray();
+        effects = opcodes.stream().map(InstructionSet.Opcode::effect).toArray(InstructionSet.Effect[]::new);
+        maxArity = Math.max(1, Arrays.stream(arity).max().orElse(0));
+    }
+
+    public Cursor cursor(final S state) { return new Cursor(state); }
+
+    /**
+     * @return The state, after the instructions in the remaining bytes of the buffer have acted on it
+     */
+    public S scan(final ByteBuffer buffer, final S state) {
+        return cursor(state).feed(buffer).state();
+    }
+
+    /**
+     * A scan in progress. It holds the state of the DFA between pieces of memory, so an instruction split between two
+     * pieces is still found.
+     */
+    public final class Cursor {
+        private static final int STREAM_BUFFER = 1 << 16;
+
+        private final S state;
+        private final long[] operands = new long[maxArity];
+        private int node = ROOT;
+        // The opcode whose operands are being read, or -1 while reading names
+        private int opcode = -1;
+        private int operand;
+        private int digits;
+
+        private Cursor(final S state) { this.state = state; }
+
+        public S state() { return state; }
+
+        public void next(final byte c) {
+            if (opcode < 0) {
+                if (c == '(' && names.output(node) >= 0) {
+                    opcode = names.output(node);
+                    operand = 0;
+                    digits = 0;
+                    operands[0] = 0;
+                } else {
+                    node = names.next(node, c);
+                }
+                return;
+            }
+
+            final int n = arity[opcode];
+            if (c >= '0' && c <= '9' && n > 0 && digits < maxDigits[opcode]) {
+                operands[operand] = operands[operand] * 10 + c - '0';
+                digits++;
+            } else if (c == ',' && digits > 0 && operand < n - 1) {
+                operands[++operand] = 0;
+                digits = 0;
+            } else if (c == ')' && (n == 0 || digits > 0 && operand == n - 1)) {
+                effects[opcode].apply(state, operands);
+                opcode = -1;
+                node = ROOT;
+            } else {
+                opcode = -1;
+                node = names.next(ROOT, c);
+            }
+        }
+
+        /**
+         * Feed the remaining bytes of the buffer, without moving its position
+         */
+        public Cursor feed(final ByteBuffer buffer) {
+            for (int i = buffer.position(); i < buffer.limit(); i++) { next(buffer.get(i)); }
+            return this;
+        }
+
+        /**
+         * Feed the rest of the stream, a fixed size buffer at a time
+         */
+        public Cursor feed(final InputStream in) throws IOException {
+            final byte[] chunk = new byte[STREAM_BUFFER];
+            for (int n; (n = in.read(chunk)) > 0; ) {
+                for (int i = 0; i < n; i++) { next(chunk[i]); }
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dev.gmathur.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The opcodes of an instruction stream hidden in corrupted memory, like day 3's mul(a,b), do() and don't(). An
+ * instruction is the opcode's name, then its operands in parentheses, separated by commas, e.g. name(12,345). Each
+ * operand is 1 to maxDigits decimal digits.
+ * <p>
+ * Register the opcodes, with the effect each instruction has on the state of the scan, and {@link #compile()} them
+ * into one {@link InstructionScanner}, whose cost per byte doesn't depend on the number of opcodes.
+ * <p>
+ * Names can't contain digits, parentheses or commas, so an instruction can't start inside another one's operands.
+ * No name may end another name either - e.g. "mul" and "smul" - so that an instruction's name never hides the name
+ * of another one starting after it. Names may share prefixes, like "do" and "don't".
+ *
+ * @param <S> The state the instructions act on
+ */
+public final class InstructionSet<S> {
+    /**
+     * What an instruction does to the state of the scan. The operands array is reused between instructions, and only
+     * its first arity values are the instruction's.
+     */
+    @FunctionalInterface
+    public interface Effect<S> {
+        void apply(S state, long[] operands);
+    }
+
+    record Opcode<S>(String name, int arity, int maxDigits, Effect<S> effect) { }
+
+    // Operands are longs
+    public static final int MAX_DIGITS = 18;
+
+    private final List<Opcode<S>> opcodes = new ArrayList<>();
+
+    /**
+     * Register an opcode.
+     *
+     * @param name The name of the opcode, in ASCII
+     * @param arity The number of operands
+     * @param maxDigits The most digits an operand may have, ignored if the arity is 0
+     * @param effect What the instruction does to the state
+     */
+    public InstructionSet<S> opcode(final String name, final int arity, final int maxDigits, final Effect<S> effect) {
+        if (name.isEmpty()) { throw new IllegalArgumentException("Opcode name is empty"); }
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c > 0x7f || Character.isDigit(c) || c == '(' || c == ')' || c == ',') {
+                throw new IllegalArgumentException("Opcode name " + name + " has an invalid character " + c);
+            }
+        }
+        if (arity < 0) { throw new IllegalArgumentException("Arity of " + name + " is negative: " + arity); }
+        if (arity > 0 && (maxDigits < 1 || maxDigits > MAX_DIGITS)) {
+            throw new IllegalArgumentException("Digits of " + name + " must be in [1, " + MAX_DIGITS + "], got "
+                    + maxDigits);
+        }
+        for (Opcode<S> opcode : opcodes) {
+            if (opcode.name.endsWith(name) || name.endsWith(opcode.name)) {
+                throw new IllegalArgumentException("Opcode " + name + " clashes with " + opcode.name);
+            }
+        }
+        opcodes.add(new Opcode<>(name, arity, maxDigits, effect));
+        return this;
+    }
+
+    public InstructionScanner<S> compile() {
+        if (opcodes.isEmpty()) { throw new IllegalStateException("No opcodes registered"); }
+        return new InstructionScanner<>(List.copyOf(opcodes));
+    }
+}
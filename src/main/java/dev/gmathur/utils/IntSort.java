@@ -0,0 +1,59 @@
+package dev.gmathur.utils;
+
+import java.util.Arrays;
+
+/**
+ * Sorting for primitive int arrays. {@link #sort(int[])} picks a least significant digit radix sort for arrays that
+ * fit comfortably in cache, and {@link Arrays#parallelSort(int[])} for larger ones, where the extra cores pay for the
+ * merge passes.
+ */
+public final class IntSort {
+    /** Arrays with at least this many elements are sorted with {@link Arrays#parallelSort(int[])} */
+    public static final int PARALLEL_THRESHOLD = 1 << 22;
+
+    private IntSort() { }
+
+    public static void sort(final int[] a) {
+        if (a.length >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1) {
+            Arrays.parallelSort(a);
+        } else {
+            radixSort(a);
+        }
+    }
+
+    /**
+     * Sort the array in place with an LSD radix sort over the four bytes of the values, in O(n) time and with an n
+     * element scratch array. Any pass whose byte is the same for all the values is skipped, so small values, like the
+     * five digit location ids of day 1, only take three passes.
+     */
+    public static void radixSort(final int[] a) {
+        final int n = a.length;
+        if (n < 2) { return; }
+
+        // One histogram per byte, counted in a single pass. The sign bit is flipped so negative values sort first.
+        final int[][] counts = new int[4][257];
+        for (int v : a) {
+            final int u = v ^ Integer.MIN_VALUE;
+            counts[0][(u & 0xff) + 1]++;
+            counts[1][((u >>> 8) & 0xff) + 1]++;
+            counts[2][((u >>> 16) & 0xff) + 1]++;
+            counts[3][(u >>> 24) + 1]++;
+        }
+
+        int[] src = a;
+        int[] dst = new int[n];
+        for (int pass = 0; pass < 4; pass++) {
+            final int[] count = counts[pass];
+            final int shift = pass * 8;
+            // Every value has the same byte, so this pass would leave the order as it is
+            if (count[(((src[0] ^ Integer.MIN_VALUE) >>> shift) & 0xff) + 1] == n) { continue; }
+
+            for (int b = 0; b < 256; b++) { count[b + 1] += count[b]; }
+            for (int v : src) { dst[count[((v ^ Integer.MIN_VALUE) >>> shift) & 0xff]++] = v; }
+            final int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != a) { System.arraycopy(src, 0, a, 0, n); }
+    }
+}
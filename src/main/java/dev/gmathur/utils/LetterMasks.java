@@ -0,0 +1,199 @@
+package dev.gmathur.utils;
+
+import java.util.Arrays;
+
+/**
+ * A word search over a grid of letters, 64 cells at a time. Every row of the grid has one bitmask per letter, with bit
+ * c set if the letter is at column c.
+ * <p>
+ * A word in direction (dr, dc) starts at (r, c) if, for every k, letter k of the word is at (r + k * dr, c + k * dc).
+ * That's the mask of letter k in row r + k * dr, shifted by k * dc columns so that column c + k * dc lands on column
+ * c, and ANDed over the letters of the word. The bits left in the result are the columns where the word starts in
+ * row r. Shifting brings in zeros, so words that would run off the sides of the grid are never found.
+ * <p>
+ * Only the letters given when the masks are built are indexed, in a single pass over the grid. The masks can cover a
+ * band of the grid's rows instead of all of them, and only find the words that lie entirely within the band.
+ */
+public final class LetterMasks {
+    // The 8 directions, as (dr, dc)
+    private static final int[][] DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}, {1, 1}, {-1, -1}, {1, -1}, {-1, 1}};
+
+    // The grid row of the first row of the masks
+    private final int firstRow;
+    private final int rows;
+    private final int cols;
+    // Longs per row
+    private final int words;
+    // masks[letter] holds the masks of all the rows, words longs per row, or null if the letter is not indexed
+    private final long[][] masks = new long[256][];
+
+    /**
+     * @param grid The grid, one row per array, all of the same length
+     * @param letters The letters to index
+     */
+    public LetterMasks(final byte[][] grid, final String letters) {
+        this(grid, 0, grid.length, letters);
+    }
+
+    /**
+     * @param grid The grid, one row per array, all of the same length
+     * @param fromRow The first row of the band of the grid to index
+     * @param toRow The row after the last row of the band
+     * @param letters The letters to index
+     */
+    public LetterMasks(final byte[][] grid, final int fromRow, final int toRow, final String letters) {
+        if (fromRow < 0 || toRow > grid.length || fromRow > toRow) {
+            throw new IllegalArgumentException("Rows [" + fromRow + ", " + toRow + ") not in a grid of " + grid.length);
+        }
+        this.firstRow = fromRow;
+        this.rows = toRow - fromRow;
+        this.cols = grid.length == 0 ? 0 : grid[0].length;
+        this.words = (cols + 63) >>> 6;
+        // The slot of each letter's bits for the word being built. Letters that aren't indexed go to the last slot,
+        // which is thrown away, so there is no branch on the letters, which are as good as random.
+        final int[] slot = new int[256];
+        final long[][] indexed = new long[letters.length()][];
+        int n = 0;
+        Arrays.fill(slot, letters.length());
+        for (int i = 0; i < letters.length(); i++) {
+            final int letter = letters.charAt(i) & 0xff;
+            if (masks[letter] == null) {
+                masks[letter] = new long[rows * words];
+                indexed[n] = masks[letter];
+                slot[letter] = n++;
+            }
+        }
+
+        final long[] bits = new long[letters.length() + 1];
+        for (int r = 0; r < rows; r++) {
+            final byte[] row = grid[firstRow + r];
+            for (int w = 0; w < words; w++) {
+                Arrays.fill(bits, 0);
+                for (int c = w << 6, end = Math.min(cols, c + 64); c < end; c++) {
+                    bits[slot[row[c] & 0xff]] |= 1L << c;
+                }
+                for (int i = 0; i < n; i++) { indexed[i][r * words + w] = bits[i]; }
+            }
+        }
+    }
+
+    public int firstRow() { return firstRow; }
+
+    public int rows() { return rows; }
+
+    public int cols() { return cols; }
+
+    private long[] mask(final char letter) {
+        final long[] mask = masks[letter & 0xff];
+        if (mask == null) { throw new IllegalArgumentException("Letter " + letter + " is not indexed"); }
+        return mask;
+    }
+
+    /**
+     * AND into acc the mask at offset, shifted so that column c + shift lands on column c
+     */
+    private void andShifted(final long[] acc, final long[] mask, final int offset, final int shift) {
+        if (shift == 0) {
+            for (int w = 0; w < words; w++) { acc[w] &= mask[offset + w]; }
+            return;
+        }
+        final int q = Math.abs(shift) >>> 6;
+        final int b = Math.abs(shift) & 63;
+        for (int w = 0; w < words; w++) {
+            long shifted = 0;
+            if (shift > 0) {
+                // Bits move down, from the higher columns
+                final int src = w + q;
+                if (src < words) { shifted = mask[offset + src] >>> b; }
+                if (b != 0 && src + 1 < words) { shifted |= mask[offset + src + 1] << (64 - b); }
+            } else {
+                final int src = w - q;
+                if (src >= 0) { shifted = mask[offset + src] << b; }
+                if (b != 0 && src - 1 >= 0) { shifted |= mask[offset + src - 1] >>> (64 - b); }
+            }
+            acc[w] &= shifted;
+        }
+    }
+
+    /**
+     * Set acc to the columns c where letter k of the word is at (r + k * dr, c + dc0 + k * dc) for every k
+     */
+    private void match(final long[] acc, final String word, final int r, final int dr, final int dc0, final int dc) {
+        Arrays.fill(acc, -1L);
+        for (int k = 0; k < word.length(); k++) {
+            andShifted(acc, mask(word.charAt(k)), (r + k * dr) * words, dc0 + k * dc);
+        }
+    }
+
+    private static int bitCount(final long[] acc) {
+        int count = 0;
+        for (long w : acc) { count += Long.bitCount(w); }
+        return count;
+    }
+
+    /**
+     * @return The number of times the word is in the grid, in any of the 8 directions
+     */
+    public long count(final String word) {
+        return count(word, firstRow, firstRow + rows);
+    }
+
+    /**
+     * @param fromRow The first grid row where the words may start
+     * @param toRow The grid row after the last one where the words may start
+     * @return The number of times the word starts in the rows, in any of the 8 directions, and lies within the masks
+     */
+    public long count(final String word, final int fromRow, final int toRow) {
+        if (word.isEmpty()) { throw new IllegalArgumentException("Word is empty"); }
+        final long[] acc = new long[words];
+        final int span = word.length() - 1;
+        long count = 0;
+        for (int[] d : DIRECTIONS) {
+            // The start rows that leave room for the word in the direction
+            final int from = Math.max(fromRow - firstRow, d[0] < 0 ? span : 0);
+            final int to = Math.min(toRow - firstRow, d[0] > 0 ? rows - span : rows);
+            for (int r = from; r < to; r++) {
+                match(acc, word, r, d[0], 0, d[1]);
+                count += bitCount(acc);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of times the word crosses itself in an X - along both diagonals through the same middle
+     * letter, read either way along each. The word must have an odd length.
+     */
+    public long countCrosses(final String word) {
+        return countCrosses(word, firstRow, firstRow + rows);
+    }
+
+    /**
+     * @param fromRow The first grid row where the middles of the crosses may be
+     * @param toRow The grid row after the last one where the middles may be
+     * @return The number of crosses of the word with their middle in the rows, that lie within the masks
+     */
+    public long countCrosses(final String word, final int fromRow, final int toRow) {
+        if (word.length() % 2 == 0) { throw new IllegalArgumentException("Word " + word + " has no middle letter"); }
+        final String reversed = new StringBuilder(word).reverse().toString();
+        final int half = word.length() / 2;
+        final long[] acc = new long[words];
+        final long[] diagonal = new long[words];
+        final long[] cross = new long[words];
+        long count = 0;
+        final int from = Math.max(fromRow - firstRow, half);
+        final int to = Math.min(toRow - firstRow, rows - half);
+        for (int r = from; r < to; r++) {
+            // The word down the diagonal, either way, starting half a word up and left of the middle column
+            match(acc, word, r - half, 1, -half, 1);
+            match(diagonal, reversed, r - half, 1, -half, 1);
+            for (int w = 0; w < words; w++) { cross[w] = acc[w] | diagonal[w]; }
+            // And down the anti-diagonal, starting half a word up and right
+            match(acc, word, r - half, 1, half, -1);
+            match(diagonal, reversed, r - half, 1, half, -1);
+            for (int w = 0; w < words; w++) { cross[w] &= acc[w] | diagonal[w]; }
+            count += bitCount(cross);
+        }
+        return count;
+    }
+}
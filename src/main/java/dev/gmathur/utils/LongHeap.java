@@ -0,0 +1,67 @@
+package dev.gmathur.utils;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of primitive longs. Pushes and pops never allocate, except when the heap grows.
+ * <p>
+ * A priority and a payload can share an entry, as {@code priority << bits | payload}, so that the smallest entry has
+ * the smallest priority.
+ */
+public final class LongHeap {
+    private long[] heap;
+    private int size;
+
+    public LongHeap() { this(16); }
+
+    public LongHeap(final int expected) { heap = new long[Math.max(expected, 1)]; }
+
+    public void push(final long value) {
+        if (size == heap.length) { heap = Arrays.copyOf(heap, size * 2); }
+        // Sift up, moving the parents down until the value's place is found
+        int i = size++;
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (heap[parent] <= value) { break; }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    /**
+     * Remove the smallest value
+     *
+     * @return The smallest value
+     */
+    public long pop() {
+        if (size == 0) { throw new NoSuchElementException("The heap is empty"); }
+        final long top = heap[0];
+        final long last = heap[--size];
+        // Sift the last value down from the root, moving the smaller children up
+        int i = 0;
+        for (int child = 1; child < size; child = 2 * i + 1) {
+            if (child + 1 < size && heap[child + 1] < heap[child]) { child++; }
+            if (last <= heap[child]) { break; }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    public long peek() {
+        if (size == 0) { throw new NoSuchElementException("The heap is empty"); }
+        return heap[0];
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Remove all the values, keeping the array, so the heap can be reused without allocating
+     */
+    public void clear() { size = 0; }
+}
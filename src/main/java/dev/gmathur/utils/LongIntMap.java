@@ -0,0 +1,118 @@
+package dev.gmathur.utils;
+
+import java.util.Arrays;
+
+/**
+ * A map from primitive longs to primitive ints, using open addressing with linear probing. Puts and lookups never
+ * allocate, except when the table grows.
+ */
+public final class LongIntMap {
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+    private boolean hasZero;
+    private int zeroValue;
+
+    public LongIntMap() { this(HashCommon.MIN_CAPACITY); }
+
+    public LongIntMap(final int expected) { allocate(HashCommon.capacityFor(expected)); }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * HashCommon.LOAD_FACTOR);
+    }
+
+    public boolean containsKey(final long key) {
+        return key == 0 ? hasZero : slot(key) >= 0;
+    }
+
+    /**
+     * @return The value for the key, or defaultValue if the key is not in the map
+     */
+    public int get(final long key, final int defaultValue) {
+        if (key == 0) { return hasZero ? zeroValue : defaultValue; }
+        final int i = slot(key);
+        return i >= 0 ? values[i] : defaultValue;
+    }
+
+    public void put(final long key, final int value) {
+        if (key == 0) {
+            if (!hasZero) { hasZero = true; size++; }
+            zeroValue = value;
+            return;
+        }
+        int i = HashCommon.mix(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) { values[i] = value; return; }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold) { rehash(keys.length * 2); }
+    }
+
+    /**
+     * Add delta to the value for the key, treating a missing key as 0.
+     *
+     * @return The new value
+     */
+    public int addTo(final long key, final int delta) {
+        final int value = get(key, 0) + delta;
+        put(key, value);
+        return value;
+    }
+
+    public int size() { return size; }
+
+    /**
+     * Call the consumer with every entry, in no particular order
+     */
+    public void forEach(final EntryConsumer consumer) {
+        if (hasZero) { consumer.accept(0, zeroValue); }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) { consumer.accept(keys[i], values[i]); }
+        }
+    }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Remove all the entries, keeping the table, so the map can be reused without allocating
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    private int slot(final long key) {
+        int i = HashCommon.mix(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) { return i; }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == 0) { continue; }
+            int i = HashCommon.mix(oldKeys[j]) & mask;
+            while (keys[i] != 0) { i = (i + 1) & mask; }
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
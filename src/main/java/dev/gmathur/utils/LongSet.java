@@ -0,0 +1,79 @@
+package dev.gmathur.utils;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive longs, using open addressing with linear probing. Adding and looking up keys never allocates,
+ * except when the table grows.
+ */
+public final class LongSet {
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int threshold;
+    private boolean hasZero;
+
+    public LongSet() { this(HashCommon.MIN_CAPACITY); }
+
+    public LongSet(final int expected) { allocate(HashCommon.capacityFor(expected)); }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * HashCommon.LOAD_FACTOR);
+    }
+
+    /**
+     * @return True if the key was not already in the set
+     */
+    public boolean add(final long key) {
+        if (key == 0) {
+            if (hasZero) { return false; }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int i = HashCommon.mix(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) { return false; }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        if (++size > threshold) { rehash(keys.length * 2); }
+        return true;
+    }
+
+    public boolean contains(final long key) {
+        if (key == 0) { return hasZero; }
+        int i = HashCommon.mix(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) { return true; }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Remove all the keys, keeping the table, so the set can be reused without allocating
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] old = keys;
+        allocate(capacity);
+        for (long key : old) {
+            if (key == 0) { continue; }
+            int i = HashCommon.mix(key) & mask;
+            while (keys[i] != 0) { i = (i + 1) & mask; }
+            keys[i] = key;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package dev.gmathur.utils;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Timing and allocation measurements for a piece of code.
+ * <p>
+ * A measurement runs the code for a number of warmup iterations, whose results are discarded, followed by a number of
+ * measured iterations. Each measured iteration is timed with the monotonic {@link System#nanoTime()} clock. The
+ * result reports the min, p50, p99 and max of the iteration times, the bytes allocated per iteration by the calling
+ * thread (via the HotSpot {@code ThreadMXBean}) and the number and duration of garbage collections that ran during the
+ * measured iterations.
+ * <p>
+ * The defaults for {@link #run(String, Runnable)} come from system properties, so that every test that uses
+ * {@link Util#runTimed(Runnable)} or {@link Util#runTimedWithLabel(String, Runnable)} can be re-run with more
+ * iterations, and have its results written as JSON lines, without any code changes -
+ * <pre>
+ *   mvn test -Daoc.measure.warmup=5 -Daoc.measure.iterations=20 -Daoc.measure.out=target/measurements.jsonl
+ * </pre>
+ * Note that allocations made by other threads (for example the virtual threads in Day 6) are not attributed to the
+ * measurement.
+ */
+public final class Measure {
+    public static final String WARMUP_PROPERTY = "aoc.measure.warmup";
+    public static final String ITERATIONS_PROPERTY = "aoc.measure.iterations";
+    public static final String OUTPUT_PROPERTY = "aoc.measure.out";
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * The result of a measurement. All times are in nanoseconds, and the allocation is per measured iteration.
+     */
+    public record Stats(String label, int warmup, int iterations, long minNanos, long p50Nanos, long p99Nanos,
+                        long maxNanos, double meanNanos, long allocatedBytes, long gcCount, long gcMillis) {
+        public String toJson() {
+            return String.format(Locale.ROOT, "{\"label\":\"%s\",\"warmup\":%d,\"iterations\":%d,\"minNanos\":%d," +
+                            "\"p50Nanos\":%d,\"p99Nanos\":%d,\"maxNanos\":%d,\"meanNanos\":%.1f," +
+                            "\"allocatedBytes\":%d,\"gcCount\":%d,\"gcMillis\":%d}",
+                    label.replace("\\", "\\\\").replace("\"", "\\\""), warmup, iterations, minNanos, p50Nanos,
+                    p99Nanos, maxNanos, meanNanos, allocatedBytes, gcCount, gcMillis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "[%s] took: %.3fms (p50: %.3fms, p99: %.3fms, n=%d) alloc: %dKB gc: %d (%dms)", label,
+                    meanNanos / 1e6, p50Nanos / 1e6, p99Nanos / 1e6, iterations, allocatedBytes / 1024, gcCount,
+                    gcMillis);
+        }
+    }
+
+    private Measure() { }
+
+    /**
+     * Measure the runnable with the warmup and iteration counts taken from the aoc.measure.warmup (default 0) and
+     * aoc.measure.iterations (default 1) system properties. The result is printed, and also appended as a JSON line to
+     * the file named by the aoc.measure.out system property if it is set.
+     */
+    public static Stats run(final String label, final Runnable runnable) {
+        final int warmup = Integer.getInteger(WARMUP_PROPERTY, 0);
+        final int iterations = Integer.getInteger(ITERATIONS_PROPERTY, 1);
+        final Stats stats = run(label, warmup, iterations, runnable);
+
+        System.out.println(stats);
+        final String out = System.getProperty(OUTPUT_PROPERTY);
+        if (out != null && !out.isBlank()) { append(out, stats); }
+        return stats;
+    }
+
+    public static Stats run(final String label, final int warmup, final int iterations, final Runnable runnable) {
+        if (warmup < 0 || iterations < 1) {
+            throw new IllegalArgumentException("Need warmup >= 0 and iterations >= 1, got " + warmup + ", " + iterations);
+        }
+        for (int i = 0; i < warmup; i++) { runnable.run(); }
+
+        final long[] samples = new long[iterations];
+        final long gcCountBefore = gcCount();
+        final long gcMillisBefore = gcMillis();
+        final long allocatedBefore = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+
+        for (int i = 0; i < iterations; i++) {
+            final long start = System.nanoTime();
+            runnable.run();
+            samples[i] = System.nanoTime() - start;
+        }
+
+        final long allocated = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        final long gcs = gcCount() - gcCountBefore;
+        final long gcTime = gcMillis() - gcMillisBefore;
+
+        Arrays.sort(samples);
+        final double mean = Arrays.stream(samples).average().orElse(0);
+        return new Stats(label, warmup, iterations, samples[0], percentile(samples, 50), percentile(samples, 99),
+                samples[iterations - 1], mean, allocated / iterations, gcs, gcTime);
+    }
+
+    // Nearest-rank percentile of an already sorted array of samples
+    static long percentile(final long[] sorted, final int p) {
+        final int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    private static synchronized void append(final String fileName, final Stats stats) {
+        try (var writer = new FileWriter(fileName, true)) {
+            writer.write(stats.toJson());
+            writer.write(System.lineSeparator());
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing measurement to file: " + fileName, e);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package dev.gmathur.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A bounded, thread-safe memo from primitive longs to primitive longs, meant to be shared by all the units of work of
+ * a solution - the stones, the trailheads - and by the threads working on them.
+ * <p>
+ * The cache holds at most {@link #maxSize()} entries. When it is full, an entry is evicted with the CLOCK algorithm:
+ * every entry has a referenced bit that is set when it is read, and a hand sweeps the entries, clearing the bits, until
+ * it finds an entry that has not been read since the hand last passed it. That's a close approximation of least
+ * recently used, but a hit only sets a bit instead of moving the entry.
+ * <p>
+ * The entries are split into segments by the hash of their key, and each segment has its own lock, so threads working
+ * on different keys rarely wait for each other. Each segment is an open-addressing table like {@link LongLongMap}, with
+ * the entries stored in slots that the clock sweeps.
+ * <p>
+ * Hits, misses and evictions are counted, see {@link #toString()}.
+ */
+public final class MemoCache {
+    private static final int MAX_SEGMENTS = 64;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize The maximum number of entries. The cache may hold slightly more, since every segment gets an equal
+     *                share rounded up.
+     */
+    public MemoCache(final int maxSize) {
+        if (maxSize < 1) { throw new IllegalArgumentException("Size must be positive, got " + maxSize); }
+        // Enough segments for the threads to rarely share one, but not so many that each holds only a few entries
+        final int wanted = Math.min(MAX_SEGMENTS, Math.max(1, maxSize / 64));
+        final int count = Math.min(Integer.highestOneBit(wanted),
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+        this.segments = new Segment[count];
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+        final int perSegment = (maxSize + count - 1) / count;
+        for (int i = 0; i < count; i++) { segments[i] = new Segment(perSegment); }
+        this.maxSize = perSegment * count;
+    }
+
+    private Segment segmentFor(final int hash) {
+        // The top bits pick the segment, and the segment's table uses the bottom bits
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    /**
+     * @return The value for the key, or defaultValue if it is not cached
+     */
+    public long get(final long key, final long defaultValue) {
+        final int hash = HashCommon.mix(key);
+        final Segment segment = segmentFor(hash);
+        final int slot;
+        final long value;
+        synchronized (segment) {
+            slot = segment.find(key, hash);
+            value = slot >= 0 ? segment.hit(slot) : defaultValue;
+        }
+        (slot >= 0 ? hits : misses).increment();
+        return value;
+    }
+
+    public void put(final long key, final long value) {
+        final int hash = HashCommon.mix(key);
+        final Segment segment = segmentFor(hash);
+        final boolean evicted;
+        synchronized (segment) {
+            evicted = segment.put(key, hash, value);
+        }
+        if (evicted) { evictions.increment(); }
+    }
+
+    /**
+     * @return The cached value for the key, computing and caching it if it is not cached. No lock is held while
+     * computing, so the function can use the cache recursively, but two threads may compute the same key.
+     */
+    public long computeIfAbsent(final long key, final LongUnaryOperator function) {
+        final int hash = HashCommon.mix(key);
+        final Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            final int slot = segment.find(key, hash);
+            if (slot >= 0) {
+                hits.increment();
+                return segment.hit(slot);
+            }
+        }
+        misses.increment();
+        final long value = function.applyAsLong(key);
+        put(key, value);
+        return value;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) { size += segment.used; }
+        }
+        return size;
+    }
+
+    public int maxSize() { return maxSize; }
+
+    public long hits() { return hits.sum(); }
+
+    public long misses() { return misses.sum(); }
+
+    public long evictions() { return evictions.sum(); }
+
+    /**
+     * Remove all the entries and reset the counters, keeping the tables, so the cache can be reused without allocating
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) { segment.clear(); }
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    @Override
+    public String toString() {
+        final long hits = hits();
+        final long lookups = hits + misses();
+        return String.format("MemoCache size: %d/%d hits: %d misses: %d (hit rate %.1f%%) evictions: %d",
+                size(), maxSize, hits, misses(), lookups == 0 ? 0.0 : 100.0 * hits / lookups, evictions());
+    }
+
+    /**
+     * The entries live in slots, which the clock sweeps. The table maps a key to its slot - it holds slot + 1, with
+     * 0 marking a free position, so unlike {@link LongLongMap} any key, including 0, can be stored.
+     */
+    private static final class Segment {
+        private final long[] keys;
+        private final long[] values;
+        private final boolean[] referenced;
+        private final int[] table;
+        private final int mask;
+        private int used;
+        private int hand;
+
+        Segment(final int capacity) {
+            keys = new long[capacity];
+            values = new long[capacity];
+            referenced = new boolean[capacity];
+            table = new int[HashCommon.capacityFor(capacity)];
+            mask = table.length - 1;
+        }
+
+        // The table position holding the key, or -1
+        private int position(final long key, final int hash) {
+            int i = hash & mask;
+            int s;
+            while ((s = table[i]) != 0) {
+                if (keys[s - 1] == key) { return i; }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        int find(final long key, final int hash) {
+            final int i = position(key, hash);
+            return i < 0 ? -1 : table[i] - 1;
+        }
+
+        long hit(final int slot) {
+            referenced[slot] = true;
+            return values[slot];
+        }
+
+        // Returns true if an entry had to be evicted to make room for the key
+        boolean put(final long key, final int hash, final long value) {
+            final int existing = find(key, hash);
+            if (existing >= 0) {
+                values[existing] = value;
+                return false;
+            }
+
+            final int slot;
+            final boolean evicted = used == keys.length;
+            if (evicted) {
+                while (referenced[hand]) {
+                    referenced[hand] = false;
+                    hand = hand + 1 == keys.length ? 0 : hand + 1;
+                }
+                slot = hand;
+                hand = hand + 1 == keys.length ? 0 : hand + 1;
+                remove(position(keys[slot], HashCommon.mix(keys[slot])));
+            } else {
+                slot = used++;
+            }
+
+            keys[slot] = key;
+            values[slot] = value;
+            referenced[slot] = false;
+            int i = hash & mask;
+            while (table[i] != 0) { i = (i + 1) & mask; }
+            table[i] = slot + 1;
+            return evicted;
+        }
+
+        // Remove the entry at table position i, shifting back any entries after it whose probe passes through i, so
+        // that lookups never stop early at the hole
+        private void remove(final int i) {
+            int gap = i;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                final int s = table[j];
+                if (s == 0) { break; }
+                final int home = HashCommon.mix(keys[s - 1]) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    table[gap] = s;
+                    gap = j;
+                }
+            }
+            table[gap] = 0;
+        }
+
+        // Proportional to the entries in use rather than to the capacity, so that a cache can be cleared for every
+        // small unit of work
+        void clear() {
+            if (used < table.length / 8) {
+                // Every entry's slot is somewhere after its key's home position. Holes don't end the scan, since the
+                // slot is searched for rather than the key
+                for (int slot = 0; slot < used; slot++) {
+                    int i = HashCommon.mix(keys[slot]) & mask;
+                    while (table[i] != slot + 1) { i = (i + 1) & mask; }
+                    table[i] = 0;
+                }
+            } else {
+                Arrays.fill(table, 0);
+            }
+            Arrays.fill(referenced, 0, used, false);
+            used = 0;
+            hand = 0;
+        }
+    }
+}
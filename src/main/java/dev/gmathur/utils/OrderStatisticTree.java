@@ -0,0 +1,180 @@
+package dev.gmathur.utils;
+
+import java.util.Arrays;
+
+/**
+ * A multiset of ints with O(log D) expected inserts, ranks and order statistics, where D is the number of distinct
+ * values. It's a treap of the distinct values, where every node holds its value's count and the total count of its
+ * subtree.
+ * <p>
+ * The memory is proportional to the number of distinct values rather than to the largest one, so it takes any int,
+ * however large or sparse. The values are compressed as they arrive: every new value gets the next node, the nodes
+ * live in parallel arrays, and a {@link LongIntMap} from value to node answers counts in O(1).
+ */
+public final class OrderStatisticTree {
+    @FunctionalInterface
+    public interface ValueConsumer {
+        void accept(int value, int count);
+    }
+
+    // Node 0 is the empty tree, with a total of 0
+    private static final int NIL = 0;
+
+    private final LongIntMap nodes = new LongIntMap();
+    private int[] value = new int[16];
+    private int[] count = new int[16];
+    private int[] priority = new int[16];
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private long[] total = new long[16];
+    private int next = 1;
+    private int root = NIL;
+    private long size;
+
+    /**
+     * Add count copies of the value. The count may be negative to remove copies, but a value's count must never go
+     * below zero.
+     */
+    public void add(final int v, final int c) {
+        int node = nodes.get(v, NIL);
+        if (node == NIL) {
+            if (c < 0) { throw new IllegalArgumentException("Cannot remove " + -c + " copies of absent value " + v); }
+            if (c == 0) { return; }
+            node = newNode(v);
+            root = insert(root, node);
+        } else if (count[node] + c < 0) {
+            throw new IllegalArgumentException("Cannot remove " + -c + " of " + count[node] + " copies of " + v);
+        }
+        count[node] += c;
+        // The totals of the subtrees on the path down to the node
+        for (int t = root; ; t = v < value[t] ? left[t] : right[t]) {
+            total[t] += c;
+            if (t == node) { break; }
+        }
+        size += c;
+    }
+
+    private int newNode(final int v) {
+        if (next == value.length) {
+            final int capacity = next * 2;
+            value = Arrays.copyOf(value, capacity);
+            count = Arrays.copyOf(count, capacity);
+            priority = Arrays.copyOf(priority, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            total = Arrays.copyOf(total, capacity);
+        }
+        final int node = next++;
+        value[node] = v;
+        // Scrambled node numbers are as good as random priorities, and keep the tree the same from run to run
+        priority[node] = HashCommon.mix(node);
+        nodes.put(v, node);
+        return node;
+    }
+
+    /**
+     * Insert the node, which has a count of 0, into the subtree
+     *
+     * @return The root of the subtree
+     */
+    private int insert(int t, final int node) {
+        if (t == NIL) { return node; }
+        if (value[node] < value[t]) {
+            left[t] = insert(left[t], node);
+            if (priority[left[t]] > priority[t]) { t = rotateRight(t); }
+        } else {
+            right[t] = insert(right[t], node);
+            if (priority[right[t]] > priority[t]) { t = rotateLeft(t); }
+        }
+        return t;
+    }
+
+    private int rotateRight(final int t) {
+        final int l = left[t];
+        left[t] = right[l];
+        right[l] = t;
+        total[l] = total[t];
+        total[t] = count[t] + total[left[t]] + total[right[t]];
+        return l;
+    }
+
+    private int rotateLeft(final int t) {
+        final int r = right[t];
+        right[t] = left[r];
+        left[r] = t;
+        total[r] = total[t];
+        total[t] = count[t] + total[left[t]] + total[right[t]];
+        return r;
+    }
+
+    /**
+     * @return The number of copies of the value
+     */
+    public int count(final int v) {
+        final int node = nodes.get(v, NIL);
+        return node == NIL ? 0 : count[node];
+    }
+
+    /**
+     * @return The number of values less than or equal to v
+     */
+    public long rank(final int v) {
+        long rank = 0;
+        for (int t = root; t != NIL; ) {
+            if (v < value[t]) {
+                t = left[t];
+            } else {
+                rank += total[left[t]] + count[t];
+                t = right[t];
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * @return The k-th smallest value, counting from zero
+     */
+    public int select(long k) {
+        if (k < 0 || k >= size) { throw new IndexOutOfBoundsException("Rank " + k + " of " + size + " values"); }
+        int t = root;
+        while (true) {
+            final long before = total[left[t]];
+            if (k < before) {
+                t = left[t];
+            } else if (k < before + count[t]) {
+                return value[t];
+            } else {
+                k -= before + count[t];
+                t = right[t];
+            }
+        }
+    }
+
+    /**
+     * Call the consumer with every value that has copies, and its count, in increasing order of the values
+     */
+    public void forEach(final ValueConsumer consumer) {
+        int[] stack = new int[32];
+        int depth = 0;
+        for (int t = root; t != NIL || depth > 0; ) {
+            if (t != NIL) {
+                if (depth == stack.length) { stack = Arrays.copyOf(stack, depth * 2); }
+                stack[depth++] = t;
+                t = left[t];
+            } else {
+                t = stack[--depth];
+                if (count[t] > 0) { consumer.accept(value[t], count[t]); }
+                t = right[t];
+            }
+        }
+    }
+
+    /**
+     * @return The number of distinct values that have been added, including any whose copies were all removed
+     */
+    public int distinct() { return next - 1; }
+
+    public long size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+}
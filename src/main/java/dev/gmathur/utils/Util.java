@@ -18,22 +18,6 @@ public class Util {
         }
     }
     public record Triple<A, B, C>(A first, B second, C third) { }
-    public record Grid<T>(T[][] g, int R, int C) {}
-    // A record to represent a single cell, intersection of (row, col), in the grid
-    public record Cell(int r, int c) {}
-    // A record to represent a wide cell. It occupies two horizontally adjacent (row, col) pairs in the grid
-    public record WCell(int row, int lc, int rc) {
-        public boolean isValid(int R, int C) {
-            return row >= 0 && row < R && lc >= 0 && lc < C && rc >= 0 && rc < C;
-        }
-        public boolean isAtTop() { return row == 0; }
-        public boolean isAtBottom(int R) { return row == R - 1; }
-        public boolean isAtLeft() { return lc == 0; }
-        public boolean isAtRight(int C) { return rc == C - 1; }
-        public boolean containsValidChar(char[][] grid, char[] validChars) {
-            return (grid[row][lc] == validChars[0] || grid[row][rc] == validChars[1]);
-        }
-    }
     public enum Direction { NORTH, EAST, SOUTH, WEST; }
 
     public static void printGrid(char[][] grid) {
@@ -69,18 +53,24 @@ public class Util {
         return result;
     }
 
-    public static void runTimedWithLabel(String label, Runnable runnable) {
-        long start = System.currentTimeMillis();
-        runnable.run();
-        long end = System.currentTimeMillis();
-        System.out.printf("[%s] took: %dms%n", label, end - start);
+    /**
+     * Run and time the runnable. See {@link Measure#run(String, Runnable)} for how warmup, iterations and the
+     * machine-readable output are configured.
+     */
+    public static Measure.Stats runTimedWithLabel(String label, Runnable runnable) {
+        return Measure.run(label, runnable);
     }
 
-    public static void runTimed(Runnable runnable) {
-        long start = System.currentTimeMillis();
-        runnable.run();
-        long end = System.currentTimeMillis();
-        System.out.println("Time taken: " + (end - start) + "ms");
+    /**
+     * Same as {@link #runTimedWithLabel(String, Runnable)}, with the calling class and method as the label.
+     */
+    public static Measure.Stats runTimed(Runnable runnable) {
+        final String label = StackWalker.getInstance().walk(frames -> frames
+                .skip(1)
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse("unknown"));
+        return Measure.run(label, runnable);
     }
 
 
@@ -0,0 +1,60 @@
+package dev.gmathur.generators;
+
+import dev.gmathur.problems.Day01HistorianHysteria;
+import dev.gmathur.problems.Day09DiskFragmenter;
+import dev.gmathur.problems.Solver;
+import dev.gmathur.problems.SolverRunner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputGeneratorsTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testSameSeedSameInput() throws IOException {
+        for (int day = 1; day <= 16; day++) {
+            final Path a = InputGenerators.generate(day, 1, 7, dir.resolve("a"));
+            final Path b = InputGenerators.generate(day, 1, 7, dir.resolve("b"));
+            final Path c = InputGenerators.generate(day, 1, 8, dir.resolve("b"));
+            assertArrayEquals(Files.readAllBytes(a), Files.readAllBytes(b), "Day " + day);
+            assertFalse(Arrays.equals(Files.readAllBytes(a), Files.readAllBytes(c)), "Day " + day);
+        }
+    }
+
+    @Test
+    void testEveryDayParsesGeneratedInput() {
+        for (Solver<?, ?, ?> solver : SolverRunner.discover()) {
+            final Path path = InputGenerators.generate(solver.day(), 1, InputGenerators.DEFAULT_SEED, dir);
+            assertNotNull(solver.parseInput(path.toString()), solver.name());
+        }
+    }
+
+    @Test
+    void testSizeGrowsWithScale() throws IOException {
+        final long x1 = Files.size(InputGenerators.generate(1, 1, 1, dir));
+        final long x10 = Files.size(InputGenerators.generate(1, 10, 1, dir));
+        assertEquals(10 * x1, x10);
+        assertEquals(14, InputGenerators.side(10, 2));
+
+        final Path disk = InputGenerators.generate(9, 3, 1, dir);
+        assertEquals(60_000, Files.size(disk));
+        assertTrue(new Day09DiskFragmenter().solvePart1(new Day09DiskFragmenter().parseInput(disk.toString())) > 0);
+        assertNotNull(new Day01HistorianHysteria().solve(InputGenerators.generate(1, 2, 1, dir).toString()));
+    }
+
+    @Test
+    void testSlope() {
+        final double[] x = {1e3, 1e4, 1e5};
+        assertEquals(1.0, ScalingBenchmark.slope(x, new double[]{2e3, 2e4, 2e5}), 1e-9);
+        assertEquals(2.0, ScalingBenchmark.slope(x, new double[]{1e6, 1e8, 1e10}), 1e-9);
+        assertTrue(Double.isNaN(ScalingBenchmark.slope(new double[]{1}, new double[]{1})));
+    }
+}
@@ -3,8 +3,13 @@ package dev.gmathur.problems;
 import static dev.gmathur.utils.Util.runTimed;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import dev.gmathur.utils.ExecutionStrategy;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
 class Day01HistorianHysteriaTest {
     @Test
@@ -16,4 +21,82 @@ class Day01HistorianHysteriaTest {
             assertEquals(24869388, result.part2());
         });
     }
+
+    @ParameterizedTest
+    @EnumSource(Day01HistorianHysteria.SortEngine.class)
+    public void testPart1SortEngines(Day01HistorianHysteria.SortEngine engine) {
+        var columns = Day01HistorianHysteria.parseColumns(Day01HistorianHysteria.PUZZLE_INPUT);
+        assertEquals(1000, columns.size());
+        assertEquals(1110981, Day01HistorianHysteria.part1(columns, engine));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionStrategy.class)
+    public void testPart2Histograms(ExecutionStrategy strategy) {
+        var columns = Day01HistorianHysteria.parseColumns(Day01HistorianHysteria.PUZZLE_INPUT);
+        assertEquals(24869388, Day01HistorianHysteria.part2(columns, strategy));
+
+        // Left values repeat in the test input, and every occurrence counts
+        var test = Day01HistorianHysteria.parseColumns("src/main/resources/day1/input_d1_test.lst");
+        assertEquals(31, Day01HistorianHysteria.part2(test, strategy));
+        assertEquals(31, Day01HistorianHysteria.part2(test.toLocations()));
+
+        // Values too far apart for dense histograms
+        var sparse = new Day01HistorianHysteria.Columns(
+                new int[]{1_000_000_000, 5, 5, -7}, new int[]{5, 1_000_000_000, 5, -7});
+        assertEquals(1_000_000_000L + 20 - 7, Day01HistorianHysteria.part2(sparse, strategy));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionStrategy.class)
+    public void testPart2Chunks(ExecutionStrategy strategy) {
+        // Enough pairs for one chunk per core, with a dense and a sparse spread of values
+        var random = new SplittableRandom(1);
+        for (int bound : new int[]{1_000, Integer.MAX_VALUE}) {
+            int[] left = random.ints(200_000, 0, bound).toArray();
+            int[] right = random.ints(200_000, 0, bound).toArray();
+            var columns = new Day01HistorianHysteria.Columns(left, right);
+            assertEquals(Day01HistorianHysteria.part2(columns.toLocations()),
+                    Day01HistorianHysteria.part2(columns, strategy));
+        }
+    }
+
+    @Test
+    public void testTracker() {
+        var tracker = Day01HistorianHysteria.track(Day01HistorianHysteria.PUZZLE_INPUT);
+        assertEquals(1000, tracker.size());
+        assertEquals(1110981, tracker.distance());
+        assertEquals(24869388, tracker.similarity());
+
+        // The answers after every pair agree with solving the pairs so far
+        var test = Day01HistorianHysteria.parseColumns("src/main/resources/day1/input_d1_test.lst");
+        var incremental = new Day01HistorianHysteria.Tracker();
+        for (int i = 0; i < test.size(); i++) {
+            incremental.add(test.left()[i], test.right()[i]);
+            var prefix = new Day01HistorianHysteria.Columns(
+                    Arrays.copyOf(test.left(), i + 1), Arrays.copyOf(test.right(), i + 1));
+            assertEquals(Day01HistorianHysteria.part1(prefix, Day01HistorianHysteria.SortEngine.RADIX),
+                    incremental.distance());
+            assertEquals(Day01HistorianHysteria.part2(prefix), incremental.similarity());
+        }
+        assertEquals(11, incremental.distance());
+        assertEquals(31, incremental.similarity());
+    }
+
+    @Test
+    public void testTrackerWithLargeIds() {
+        // Sparse ids up to the largest int, which would need gigabytes as the index of a tree of counts
+        var random = new SplittableRandom(3);
+        int n = 2_000;
+        int[] left = new int[n], right = new int[n];
+        var tracker = new Day01HistorianHysteria.Tracker();
+        for (int i = 0; i < n; i++) {
+            left[i] = i % 4 == 0 ? Integer.MAX_VALUE - random.nextInt(3) : random.nextInt(1 << 30, Integer.MAX_VALUE);
+            right[i] = i % 5 == 0 ? left[random.nextInt(i + 1)] : random.nextInt(Integer.MAX_VALUE);
+            tracker.add(left[i], right[i]);
+        }
+        var columns = new Day01HistorianHysteria.Columns(left, right);
+        assertEquals(Day01HistorianHysteria.part1(columns, Day01HistorianHysteria.SortEngine.RADIX), tracker.distance());
+        assertEquals(Day01HistorianHysteria.part2(columns), tracker.similarity());
+    }
 }
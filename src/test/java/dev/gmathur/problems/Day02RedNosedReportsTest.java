@@ -1,6 +1,16 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Input;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import static dev.gmathur.utils.Util.runTimed;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -15,4 +25,61 @@ class Day02RedNosedReportsTest {
             assertEquals(544, r.part2());
         });
     }
+
+    // Try every subset of at most k levels to remove
+    private static boolean bruteForce(int[] levels, int k) {
+        int n = levels.length;
+        for (int removed = 0; removed < 1 << n; removed++) {
+            if (Integer.bitCount(removed) > k) { continue; }
+            final int r = removed;
+            int[] kept = IntStream.range(0, n).filter(i -> (r & 1 << i) == 0).map(i -> levels[i]).toArray();
+            boolean inc = true, dec = true;
+            for (int i = 1; i < kept.length; i++) {
+                int d = kept[i] - kept[i - 1];
+                inc &= d >= 1 && d <= 3;
+                dec &= d <= -1 && d >= -3;
+            }
+            if (inc || dec) { return true; }
+        }
+        return false;
+    }
+
+    @Test
+    public void testSafeWithRemovals() {
+        var random = new SplittableRandom(2);
+        long[] scratch = new long[4];
+        for (int t = 0; t < 5_000; t++) {
+            int[] levels = new int[random.nextInt(1, 11)];
+            levels[0] = random.nextInt(1, 50);
+            for (int i = 1; i < levels.length; i++) { levels[i] = levels[i - 1] + random.nextInt(-4, 5); }
+            for (int k = 0; k <= 3; k++) {
+                assertEquals(bruteForce(levels, k), Day02RedNosedReports.isSafe(levels, 0, levels.length, k, scratch),
+                        Arrays.toString(levels) + " k=" + k);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionStrategy.class)
+    public void testColumnsAndWindows(ExecutionStrategy strategy, @TempDir Path dir) throws Exception {
+        // Enough copies of the puzzle input to be parsed in more than one chunk
+        byte[] puzzle = Files.readAllBytes(Path.of(Day02RedNosedReports.PUZZLE_INPUT));
+        int copies = 40;
+        var file = dir.resolve("reports.txt");
+        try (var out = Files.newOutputStream(file)) {
+            for (int i = 0; i < copies; i++) {
+                out.write(puzzle);
+                out.write('\n');
+            }
+        }
+
+        var reports = Day02RedNosedReports.parse(Input.map(file), strategy);
+        assertEquals(1000 * copies, reports.size());
+        assertEquals(502 * copies, Day02RedNosedReports.part1(reports, strategy));
+        assertEquals(544 * copies, Day02RedNosedReports.part2(reports, strategy));
+
+        // Windows much smaller than the file, cut mid line
+        assertEquals(544L * copies, Day02RedNosedReports.countSafe(file, 1, strategy, 4099));
+        assertEquals(502L * copies, Day02RedNosedReports.countSafe(file, 0, strategy));
+    }
 }
@@ -1,7 +1,16 @@
 package dev.gmathur.problems;
 
 
+import dev.gmathur.utils.ExecutionStrategy;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
 
 import static dev.gmathur.utils.Util.runTimedWithLabel;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -17,4 +26,77 @@ class Day03MullItOverTest {
         });
     }
 
-}
\ No newline at end of file
+    // Corrupted memory made of pieces of instructions, so that many tokens almost match
+    static String corrupted(SplittableRandom random, int pieces) {
+        String[] parts = {"mul(", "mul", "(", ")", ",", "do()", "don't()", "do", "don't", "'", "d", "m", "u", "l",
+                "1", "23", "456", "7890", "x", " ", "mul(12,34)", "mul(1234,5)", "mul(5,678)"};
+        var sb = new StringBuilder();
+        for (int i = 0; i < pieces; i++) { sb.append(parts[random.nextInt(parts.length)]); }
+        return sb.toString();
+    }
+
+    @Test
+    void testScannerMatchesRegex() throws IOException {
+        var random = new SplittableRandom(3);
+        for (int t = 0; t < 500; t++) {
+            String memory = corrupted(random, random.nextInt(1, 200));
+            byte[] bytes = memory.getBytes(StandardCharsets.US_ASCII);
+            long part1 = Day03MullItOver.regexSolver(memory, true);
+            long part2 = Day03MullItOver.regexSolver(memory, false);
+
+            var scanner = new Day03MullItOver.Scanner().feed(ByteBuffer.wrap(bytes));
+            assertEquals(part1, scanner.part1(), memory);
+            assertEquals(part2, scanner.part2(), memory);
+
+            // Fed in pieces that split the tokens
+            var pieces = new Day03MullItOver.Scanner();
+            for (int from = 0; from < bytes.length; ) {
+                int to = Math.min(bytes.length, from + random.nextInt(1, 8));
+                pieces.feed(ByteBuffer.wrap(bytes, from, to - from));
+                from = to;
+            }
+            assertEquals(part1, pieces.part1(), memory);
+            assertEquals(part2, pieces.part2(), memory);
+
+            var stream = new Day03MullItOver.Scanner().feed(new ByteArrayInputStream(bytes));
+            assertEquals(part2, stream.part2(), memory);
+
+            var totals = Day03MullItOver.scanInstructions(ByteBuffer.wrap(bytes));
+            assertEquals(part1, totals.all, memory);
+            assertEquals(part2, totals.enabledOnly, memory);
+        }
+    }
+
+    @Test
+    void testExample() {
+        var buffer = Day03MullItOver.parse("src/main/resources/day3/input_d3_test.lst");
+        assertEquals(161, Day03MullItOver.part1(buffer));
+        var example = "xmul(2,4)&mul[3,7]!^don't()_mul(5,5)+mul(32,64](mul(11,8)undo()?mul(8,5))";
+        assertEquals(48, Day03MullItOver.part2(ByteBuffer.wrap(example.getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionStrategy.class)
+    void testChunksMatchSequentialScan(ExecutionStrategy strategy) {
+        var random = new SplittableRandom(17);
+        for (int t = 0; t < 200; t++) {
+            String memory = corrupted(random, random.nextInt(1, 300));
+            // Not at the start of the backing array, to check the chunks' positions
+            byte[] bytes = ("xx" + memory).getBytes(StandardCharsets.US_ASCII);
+            var buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2).slice();
+            var offset = ByteBuffer.wrap(bytes).position(2);
+            long part1 = Day03MullItOver.regexSolver(memory, true);
+            long part2 = Day03MullItOver.regexSolver(memory, false);
+            for (int chunks = 1; chunks <= 40; chunks += 3) {
+                for (var b : new ByteBuffer[]{buffer, offset}) {
+                    var segment = Day03MullItOver.scan(b, strategy, chunks);
+                    assertEquals(part1, segment.all(), memory + " in " + chunks);
+                    assertEquals(part2, segment.ifEnabled(), memory + " in " + chunks);
+                }
+            }
+        }
+        var puzzle = Day03MullItOver.parse(Day03MullItOver.PUZZLE_INPUT);
+        assertEquals(104245808, Day03MullItOver.scan(puzzle, strategy, 64).ifEnabled());
+        assertEquals(188116424, Day03MullItOver.part1(puzzle, strategy));
+    }
+}
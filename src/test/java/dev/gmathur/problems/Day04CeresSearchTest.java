@@ -0,0 +1,88 @@
+package dev.gmathur.problems;
+
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.LetterMasks;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static dev.gmathur.utils.Util.runTimedWithLabel;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Day04CeresSearchTest {
+    @Test
+    void testPart1WithTestInput() {
+        var r = Day04CeresSearch.part1(Day04CeresSearch.parse("src/main/resources/day4/input_d4_test.lst"));
+        assertEquals(18, r);
+    }
+
+    @Test
+    void testPart1WithPuzzleInput() {
+        runTimedWithLabel("D4 Part 1", () -> {
+            var r = Day04CeresSearch.part1(Day04CeresSearch.parse("src/main/resources/day4/input_d4.lst"));
+            assertEquals(2578, r);
+        });
+    }
+
+    @Test
+    void testPart2WithTestInput() {
+        var r = Day04CeresSearch.part2(Day04CeresSearch.parse("src/main/resources/day4/input_d4_test.lst"));
+        assertEquals(9, r);
+    }
+
+    @Test
+    void testPart2WithPuzzleInput() {
+        runTimedWithLabel("D4 Part 2", () -> {
+            var r = Day04CeresSearch.part2(Day04CeresSearch.parse("src/main/resources/day4/input_d4.lst"));
+            assertEquals(1972, r);
+        });
+    }
+
+    @ParameterizedTest
+    @EnumSource(Day04CeresSearch.SearchEngine.class)
+    void testSearchEngines(Day04CeresSearch.SearchEngine engine) {
+        var test = Day04CeresSearch.parse("src/main/resources/day4/input_d4_test.lst");
+        assertEquals(18, Day04CeresSearch.part1(test, engine));
+        assertEquals(9, Day04CeresSearch.part2(test, engine));
+        var puzzle = Day04CeresSearch.parse(Day04CeresSearch.PUZZLE_INPUT);
+        assertEquals(2578, Day04CeresSearch.part1(puzzle, engine));
+        assertEquals(1972, Day04CeresSearch.part2(puzzle, engine));
+    }
+
+    @Test
+    void testCountWordsMatchesLetterMasks() {
+        var random = new SplittableRandom(20);
+        byte[][] grid = new byte[60][90];
+        for (byte[] row : grid) {
+            for (int c = 0; c < row.length; c++) { row[c] = (byte) "XMASB".charAt(random.nextInt(5)); }
+        }
+        var words = List.of("XMAS", "MAS", "SAM", "A", "ASA", "BAMXAS", "MM", "XMAS");
+        var masks = new LetterMasks(grid, "XMASB");
+        long[] counts = Day04CeresSearch.countWords(grid, words);
+        for (int i = 0; i < words.size(); i++) { assertEquals(masks.count(words.get(i)), counts[i], words.get(i)); }
+        for (String word : new String[]{"MAS", "ASA", "A", "XMASB"}) {
+            assertEquals(masks.countCrosses(word), Day04CeresSearch.countCrosses(grid, word), word);
+        }
+    }
+
+    @Test
+    void testBandsMatchWholeGrid() {
+        var random = new SplittableRandom(21);
+        byte[][] grid = new byte[45][80];
+        for (byte[] row : grid) {
+            for (int c = 0; c < row.length; c++) { row[c] = (byte) "XMAS".charAt(random.nextInt(4)); }
+        }
+        var masks = new LetterMasks(grid, "XMAS");
+        // Bands thinner than the halo, and a single band
+        for (int bandRows : new int[]{1, 2, 5, 44, 45, 100}) {
+            for (var strategy : ExecutionStrategy.values()) {
+                assertEquals(masks.count("XMAS"), Day04CeresSearch.countInBands(grid, "XMAS", false, bandRows, strategy));
+                assertEquals(masks.countCrosses("MAS"),
+                        Day04CeresSearch.countInBands(grid, "MAS", true, bandRows, strategy));
+            }
+        }
+    }
+}
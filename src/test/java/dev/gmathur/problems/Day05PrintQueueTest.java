@@ -1,6 +1,11 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Input;
+import dev.gmathur.utils.Util.AocResult;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import static dev.gmathur.utils.Util.runTimedWithLabel;
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,4 +31,70 @@ class Day05PrintQueueTest {
         });
     }
 
-}
\ No newline at end of file
+    @ParameterizedTest
+    @EnumSource(Day05PrintQueue.ReorderEngine.class)
+    void testReorderEngines(Day05PrintQueue.ReorderEngine engine) {
+        var test = Day05PrintQueue.parse("src/main/resources/day5/d5_test.input");
+        assertEquals(123, Day05PrintQueue.part2(test, engine));
+        assertEquals(4230, Day05PrintQueue.part2(Day05PrintQueue.parse("src/main/resources/day5/d5.input"), engine));
+    }
+
+    @Test
+    void testTopologicalOrder() {
+        var input = Day05PrintQueue.parse("src/main/resources/day5/d5_test.input");
+        var rules = input.rules();
+        assertTrue(rules.before(47, 53));
+        assertFalse(rules.before(53, 47));
+        assertFalse(rules.before(47, 1000));
+        assertArrayEquals(new int[]{97, 75, 47, 61, 53},
+                Day05PrintQueue.topologicalOrder(new int[]{75, 97, 47, 61, 53}, rules));
+        for (var update : input.updates()) {
+            var ordered = Day05PrintQueue.topologicalOrder(update, rules);
+            assertTrue(Day05PrintQueue.isValidSequence(ordered, rules));
+        }
+
+        var cycle = new Day05PrintQueue.Rules(new int[]{1, 2, 3}, new int[]{2, 3, 1}, 3);
+        assertThrows(IllegalArgumentException.class, () -> Day05PrintQueue.topologicalOrder(new int[]{1, 2, 3}, cycle));
+    }
+
+    @Test
+    void testMiddlePage() {
+        var input = Day05PrintQueue.parse("src/main/resources/day5/d5.input");
+        for (var update : input.updates()) {
+            var ordered = Day05PrintQueue.topologicalOrder(update, input.rules());
+            assertEquals(ordered[update.length / 2], Day05PrintQueue.middlePage(update, input.rules()));
+        }
+        // 1 and 2 are both before 3, but not ordered between themselves
+        var partial = new Day05PrintQueue.Rules(new int[]{1, 2}, new int[]{3, 3}, 2);
+        assertThrows(IllegalArgumentException.class, () -> Day05PrintQueue.middlePage(new int[]{3, 2, 1}, partial));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionStrategy.class)
+    void testPart2ExecutionStrategies(ExecutionStrategy strategy) {
+        var input = Day05PrintQueue.parse("src/main/resources/day5/d5.input");
+        for (var engine : Day05PrintQueue.ReorderEngine.values()) {
+            assertEquals(4230, Day05PrintQueue.part2(input, engine, strategy), engine.name());
+        }
+    }
+
+    @Test
+    void testSolveBothParts() {
+        assertEquals(new AocResult<>(143, 123), new Day05PrintQueue().solve("src/main/resources/day5/d5_test.input"));
+        assertEquals(new AocResult<>(7198, 4230), new Day05PrintQueue().solve("src/main/resources/day5/d5.input"));
+        assertEquals(new AocResult<>(143, 123),
+                Day05PrintQueue.solveStreaming(Input.open("src/main/resources/day5/d5_test.input")));
+        assertEquals(new AocResult<>(7198, 4230),
+                Day05PrintQueue.solveStreaming(Input.open("src/main/resources/day5/d5.input")));
+        // Updates longer than the scratch array, and blank lines between them
+        var text = new StringBuilder();
+        for (int i = 1; i < 100; i++) {
+            for (int j = i + 1; j < 100; j++) { text.append(i).append('|').append(j).append('\n'); }
+        }
+        text.append('\n');
+        for (int i = 1; i < 100; i++) { text.append(i).append(i < 99 ? "," : "\n\n"); }
+        text.append("3,2,1\n");
+        var streamed = Day05PrintQueue.solveStreaming(Input.wrap(text.toString().getBytes()));
+        assertEquals(new AocResult<>(50, 2), streamed);
+    }
+}
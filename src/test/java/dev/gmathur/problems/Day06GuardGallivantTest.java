@@ -1,6 +1,10 @@
 package dev.gmathur.problems;
 
+import dev.gmathur.utils.ExecutionStrategy;
+import dev.gmathur.utils.Grid;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import static dev.gmathur.utils.Util.runTimedWithLabel;
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,5 +39,35 @@ class Day06GuardGallivantTest {
         });
     }
 
+    @ParameterizedTest
+    @EnumSource(ExecutionStrategy.class)
+    void testTestInputPart2EveryExecutionStrategy(ExecutionStrategy strategy) {
+        var input = Day06GuardGallivant.readFileFromResources("day6/d6_test.input");
+        assertEquals(6, Day06GuardGallivant.part2(input, strategy));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Day06GuardGallivant.CycleEngine.class)
+    void testCycleEngines(Day06GuardGallivant.CycleEngine engine) {
+        var test = Day06GuardGallivant.readFileFromResources("day6/d6_test.input");
+        assertEquals(6, Day06GuardGallivant.part2(test, ExecutionStrategy.SEQUENTIAL, engine));
+        var puzzle = Day06GuardGallivant.readFileFromResources("day6/d6.input");
+        assertEquals(1503, Day06GuardGallivant.part2(puzzle, ExecutionStrategy.FORK_JOIN, engine));
+    }
 
-}
\ No newline at end of file
+    @Test
+    void testJumpTableStops() {
+        var input = Day06GuardGallivant.readFileFromResources("day6/d6_test.input");
+        var grid = input.grid();
+        var jumps = new Day06GuardGallivant.JumpTable(grid);
+        int start = input.start(), none = -1;
+        // The guard at (6, 4) walks north to (1, 4), below the obstacle at (0, 4)
+        assertEquals(grid.index(1, 4), jumps.stop(start, Grid.NORTH, none));
+        // An obstacle at (3, 4) stops it at (4, 4), and one behind it changes nothing
+        assertEquals(grid.index(4, 4), jumps.stop(start, Grid.NORTH, grid.index(3, 4)));
+        assertEquals(grid.index(1, 4), jumps.stop(start, Grid.NORTH, grid.index(8, 4)));
+        // Walking south from the start leaves the lab onto the border below row 9
+        assertEquals(grid.index(10, 4), jumps.stop(start, Grid.SOUTH, none));
+        assertEquals(start, jumps.stop(start, Grid.SOUTH, grid.index(7, 4)));
+    }
+}
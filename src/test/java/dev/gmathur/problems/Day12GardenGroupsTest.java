@@ -1,7 +1,10 @@
 package dev.gmathur.problems;
 
 import dev.gmathur.problems.Day12GardenGroups.SolutionInput;
+import dev.gmathur.utils.ExecutionStrategy;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import static dev.gmathur.problems.Day12GardenGroups.parse;
 import static dev.gmathur.utils.Util.runTimedWithLabel;
@@ -43,4 +46,11 @@ class Day12GardenGroupsTest {
             assertEquals(946084, r);
         });
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @EnumSource(ExecutionStrategy.class)
+    void testEveryExecutionStrategy(ExecutionStrategy strategy) {
+        assertEquals(1550156L, Day12GardenGroups.part1(puzzleSlutionInput, strategy));
+        assertEquals(946084L, Day12GardenGroups.part2(puzzleSlutionInput, strategy));
+    }
+}
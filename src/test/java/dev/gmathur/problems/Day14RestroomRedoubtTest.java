@@ -24,9 +24,9 @@ class Day14RestroomRedoubtTest {
     @Test
     public void testPart2WithTestInput() {
         runTimedWithLabel("D14 part 2 problem input", () -> {
-            Day14RestroomRedoubt.part2("day14/d14.dat", 101, 103);
-            // always true
-            assertTrue(true);
+            var r = Day14RestroomRedoubt.part2("day14/d14.dat", 101, 103);
+            // With -Daoc.frames=<dir>, the candidate grids are recorded to day14.frames.gz, tagged with their second
+            assertEquals(7687, r);
         });
     }
 
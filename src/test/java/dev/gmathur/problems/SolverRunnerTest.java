@@ -0,0 +1,40 @@
+package dev.gmathur.problems;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverRunnerTest {
+    @Test
+    void testDiscoverFindsEveryDay() {
+        var days = SolverRunner.discover().stream().map(Solver::day).toList();
+        assertEquals(IntStream.rangeClosed(1, 16).boxed().toList(), days);
+    }
+
+    @Test
+    void testRunAllOnVirtualThreads() {
+        List<Solver<?, ?, ?>> solvers = List.of(new Day01HistorianHysteria(), new Day03MullItOver(),
+                new Day09DiskFragmenter());
+        var report = SolverRunner.runAll(solvers, SolverRunner.Executor.VIRTUAL, 0);
+
+        assertEquals(3, report.days().size());
+        assertEquals(1110981L, report.days().get(0).result().part1());
+        assertEquals(104245808L, report.days().get(1).result().part2());
+        // Day 9 mutates its input in both parts, so part 2 must see a freshly parsed disk
+        assertEquals(6398252054886L, report.days().get(2).result().part1());
+        assertEquals(6415666220005L, report.days().get(2).result().part2());
+    }
+
+    @Test
+    void testRunAllOnPlatformThreads() {
+        List<Solver<?, ?, ?>> solvers = List.of(new Day05PrintQueue(), new Day13ClawContraption());
+        var report = SolverRunner.runAll(solvers, SolverRunner.Executor.PLATFORM, 2);
+
+        assertEquals(7198, report.days().get(0).result().part1());
+        assertEquals(82261957837868.0, report.days().get(1).result().part2());
+        assertTrue(report.wallNanos() > 0);
+    }
+}
@@ -0,0 +1,62 @@
+package dev.gmathur.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class AhoCorasickTest {
+    private static long occurrences(String text, String pattern) {
+        long count = 0;
+        for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + 1)) { count++; }
+        return count;
+    }
+
+    @Test
+    void testPatternCounts() {
+        var random = new SplittableRandom(8);
+        for (int t = 0; t < 200; t++) {
+            var patterns = new ArrayList<String>();
+            for (int p = random.nextInt(1, 30); p > 0; p--) {
+                patterns.add(random.ints(random.nextInt(1, 6), 'a', 'd')
+                        .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString());
+            }
+            String text = random.ints(random.nextInt(0, 500), 'a', 'e')
+                    .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString();
+
+            var automaton = AhoCorasick.of(patterns);
+            long[] visits = new long[automaton.nodes()];
+            int node = AhoCorasick.ROOT;
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            for (int i = 0; i < bytes.length; i++) {
+                node = automaton.next(node, bytes[i]);
+                visits[node]++;
+                // The output is a pattern that ends here, if any does
+                int output = automaton.output(node);
+                String prefix = text.substring(0, i + 1);
+                assertEquals(patterns.stream().anyMatch(prefix::endsWith), output >= 0, prefix);
+                if (output >= 0) { assertTrue(prefix.endsWith(patterns.get(output)), prefix); }
+            }
+            long[] expected = patterns.stream().mapToLong(p -> occurrences(text, p)).toArray();
+            assertArrayEquals(expected, automaton.patternCounts(visits), text + " " + patterns);
+        }
+    }
+
+    @Test
+    void testOutput() {
+        var automaton = AhoCorasick.of(List.of("abc", "b", "xy"));
+        int node = AhoCorasick.ROOT;
+        int[] outputs = new int[5];
+        byte[] text = "abxyc".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < text.length; i++) {
+            node = automaton.next(node, text[i]);
+            outputs[i] = automaton.output(node);
+        }
+        assertArrayEquals(new int[]{-1, 1, -1, 2, -1}, outputs);
+    }
+}
@@ -0,0 +1,30 @@
+package dev.gmathur.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordsTest {
+    @Test
+    void testPackRowCol() {
+        for (int[] rc : new int[][]{{0, 0}, {3, -7}, {-1, -1}, {Integer.MIN_VALUE, Integer.MAX_VALUE}}) {
+            long packed = Coords.pack(rc[0], rc[1]);
+            assertEquals(rc[0], Coords.row(packed));
+            assertEquals(rc[1], Coords.col(packed));
+        }
+        assertNotEquals(Coords.pack(1, 2), Coords.pack(2, 1));
+    }
+
+    @Test
+    void testPackState() {
+        for (int[] rcd : new int[][]{{0, 0, 0}, {140, 139, 3}, {-5, 12, 1}, {(1 << 29) - 1, -(1 << 29), 2}}) {
+            long packed = Coords.pack(rcd[0], rcd[1], rcd[2]);
+            assertEquals(rcd[0], Coords.stateRow(packed));
+            assertEquals(rcd[1], Coords.stateCol(packed));
+            assertEquals(rcd[2], Coords.dir(packed));
+        }
+        long state = Coords.state(12345, 3);
+        assertEquals(12345, Coords.cell(state));
+        assertEquals(3, Coords.dir(state));
+    }
+}
@@ -0,0 +1,60 @@
+package dev.gmathur.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionStrategyTest {
+    @ParameterizedTest
+    @EnumSource(ExecutionStrategy.class)
+    void testSumAndCount(ExecutionStrategy strategy) {
+        assertEquals(499_500L * 3, strategy.sum(0, 1_000, i -> 3L * i));
+        assertEquals(500, strategy.count(0, 1_000, i -> i % 2 == 0));
+        assertEquals(0, strategy.sum(5, 5, i -> 1));
+        assertEquals(7, strategy.sum(7, 8, i -> i));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionStrategy.class)
+    void testEveryChunkHasItsOwnState(ExecutionStrategy strategy) {
+        var states = new AtomicInteger();
+        var owners = ConcurrentHashMap.<int[]>newKeySet();
+        long sum = strategy.sum(0, 10_000, () -> { states.incrementAndGet(); return new int[1]; }, (state, i) -> {
+            state[0]++;
+            owners.add(state);
+            return i;
+        });
+        assertEquals(49_995_000L, sum);
+        assertEquals(states.get(), owners.size());
+        assertTrue(states.get() >= 1);
+        if (strategy == ExecutionStrategy.SEQUENTIAL) { assertEquals(1, states.get()); }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionStrategy.class)
+    void testExceptionsPropagate(ExecutionStrategy strategy) {
+        assertThrows(IllegalStateException.class, () -> strategy.sum(0, 100, i -> {
+            if (i == 42) { throw new IllegalStateException("42"); }
+            return i;
+        }));
+    }
+
+    @Test
+    void testConfigured() {
+        assertNull(System.getProperty(ExecutionStrategy.PROPERTY));
+        assertEquals(ExecutionStrategy.FORK_JOIN, ExecutionStrategy.configured(ExecutionStrategy.FORK_JOIN));
+        System.setProperty(ExecutionStrategy.PROPERTY, "virtual_threads");
+        try {
+            assertEquals(ExecutionStrategy.VIRTUAL_THREADS, ExecutionStrategy.configured(ExecutionStrategy.SEQUENTIAL));
+        } finally {
+            System.clearProperty(ExecutionStrategy.PROPERTY);
+        }
+        assertTrue(ExecutionStrategy.grain(1_000_000) >= 1);
+        assertEquals(1, ExecutionStrategy.grain(1));
+    }
+}
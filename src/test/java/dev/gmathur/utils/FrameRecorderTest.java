@@ -0,0 +1,45 @@
+package dev.gmathur.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameRecorderTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTrip() {
+        final Grid grid = Grid.parse(Input.wrap("#####\n#.@O#\n#####\n".getBytes(StandardCharsets.US_ASCII)));
+        final Path path = dir.resolve("test" + FrameRecorder.SUFFIX);
+        try (FrameRecorder recorder = FrameRecorder.open(path, 1, 3)) {
+            assertTrue(recorder.enabled());
+            recorder.frame(0, grid, 1, 1);
+            grid.set(1, 1, (byte) '@');
+            grid.set(1, 2, (byte) '.');
+            recorder.frame(1, grid, 1, 1);
+            recorder.frame(7, "OOO".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        final var frames = FrameRecorder.read(path);
+        assertEquals(3, frames.size());
+        assertEquals(".@O", new String(frames.get(0).cells(), StandardCharsets.US_ASCII));
+        assertEquals("@.O", new String(frames.get(1).cells(), StandardCharsets.US_ASCII));
+        assertEquals("OOO", new String(frames.get(2).cells(), StandardCharsets.US_ASCII));
+        assertEquals(7, frames.get(2).tag());
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        assertNull(System.getProperty(FrameRecorder.PROPERTY));
+        try (FrameRecorder recorder = FrameRecorder.open("test", 2, 2)) {
+            assertSame(FrameRecorder.DISABLED, recorder);
+            assertFalse(recorder.enabled());
+            recorder.frame(0, new byte[1]);
+        }
+    }
+}
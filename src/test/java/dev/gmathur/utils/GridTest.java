@@ -0,0 +1,58 @@
+package dev.gmathur.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridTest {
+    private static Grid of(String s) {
+        return Grid.parse(Input.wrap(s.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void testParseStopsAtBlankLine() {
+        var in = Input.wrap("ab\ncd\n\nmoves".getBytes(StandardCharsets.US_ASCII));
+        var grid = Grid.parse(in);
+        assertEquals(2, grid.rows());
+        assertEquals(2, grid.cols());
+        assertEquals('d', grid.get(1, 1));
+        assertTrue(in.atBlankLine());
+    }
+
+    @Test
+    void testIndicesAndNeighbours() {
+        var grid = of("abc\ndef\nghi\n");
+        int e = grid.index(1, 1);
+        assertEquals(1, grid.row(e));
+        assertEquals(1, grid.col(e));
+        assertEquals('b', grid.get(e + grid.n4(Grid.NORTH)));
+        assertEquals('f', grid.get(e + grid.n4(Grid.EAST)));
+        assertEquals('h', grid.get(e + grid.n4(Grid.SOUTH)));
+        assertEquals('d', grid.get(e + grid.n4(Grid.WEST)));
+        assertEquals("bcfihgda", new String(new char[]{
+                (char) grid.get(e + grid.n8(0)), (char) grid.get(e + grid.n8(1)), (char) grid.get(e + grid.n8(2)),
+                (char) grid.get(e + grid.n8(3)), (char) grid.get(e + grid.n8(4)), (char) grid.get(e + grid.n8(5)),
+                (char) grid.get(e + grid.n8(6)), (char) grid.get(e + grid.n8(7))}));
+        assertEquals(e, grid.find((byte) 'e'));
+    }
+
+    @Test
+    void testBorderSurroundsGrid() {
+        var grid = of("ab\ncd");
+        assertTrue(grid.isBorder(grid.index(0, 0) + grid.n4(Grid.NORTH)));
+        assertTrue(grid.isBorder(grid.index(1, 1) + grid.n4(Grid.EAST)));
+        assertTrue(grid.isBorder(grid.index(1, 1) + grid.n8(3)));
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        var grid = new Grid(2, 3, (byte) '.');
+        var copy = grid.copy();
+        copy.set(0, 0, (byte) '#');
+        assertEquals('.', grid.get(0, 0));
+        assertArrayEquals(new char[]{'#', '.', '.'}, copy.toCharArray()[0]);
+        assertEquals(20, grid.size());
+    }
+}
@@ -0,0 +1,81 @@
+package dev.gmathur.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputTest {
+    private static Input of(String s) {
+        return Input.wrap(s.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testNumbersSkipSeparators() {
+        var in = of("p=0,4 v=3,-3\nButton A: X+94, Y+34\n");
+        assertEquals(0, in.nextSignedInt());
+        assertEquals(4, in.nextSignedInt());
+        assertEquals(3, in.nextSignedInt());
+        assertEquals(-3, in.nextSignedInt());
+        assertEquals(94, in.nextInt());
+        assertEquals(34L, in.nextLong());
+        assertFalse(in.hasNextInt());
+    }
+
+    @Test
+    void testLines() {
+        var in = of("1 2 3\r\n\r\n45|6\n");
+        assertTrue(in.hasNextIntOnLine());
+        assertEquals(1, in.nextInt());
+        assertEquals(2, in.nextInt());
+        assertEquals(3, in.nextInt());
+        assertFalse(in.hasNextIntOnLine());
+        in.skipLine();
+        assertTrue(in.atBlankLine());
+        in.skipLine();
+        assertEquals(4, in.lineLength());
+        assertArrayEquals("45|6".getBytes(StandardCharsets.US_ASCII), in.nextRow());
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    void testRowsAndSlices() {
+        var in = of("abc\ndef\nghi");
+        byte[][] rows = in.nextRows();
+        assertEquals(3, rows.length);
+        assertEquals('i', rows[2][2]);
+
+        var slice = in.slice(4, 7);
+        assertEquals(3, slice.length());
+        assertArrayEquals("def".toCharArray(), slice.nextCharRow());
+        assertEquals("def", in.slice(4, 7).asCharSequence().toString());
+        assertEquals("bc\nd", in.asCharSequence().subSequence(1, 5).toString());
+    }
+
+    @Test
+    void testSplitLines() {
+        var in = Input.wrap("1 2\n33 4\n5\n\n666 7 8\n9".getBytes());
+        for (int parts = 1; parts <= 30; parts++) {
+            var slices = in.splitLines(parts);
+            assertTrue(slices.length <= parts);
+            var joined = new StringBuilder();
+            for (var slice : slices) {
+                String text = slice.asCharSequence().toString();
+                assertTrue(text.endsWith("\n") || joined.length() + text.length() == in.length(), text);
+                joined.append(text);
+            }
+            assertEquals(in.asCharSequence().toString(), joined.toString());
+        }
+        assertEquals(0, Input.wrap(new byte[0]).splitLines(4).length);
+    }
+
+    @Test
+    void testOpenFileAndResource() {
+        var fromFile = Input.open("src/main/resources/day1/input_d1_test.lst");
+        var fromResource = Input.open("day1/input_d1_test.lst");
+        assertEquals(fromFile.length(), fromResource.length());
+        assertEquals(3, fromResource.nextInt());
+        assertThrows(IllegalArgumentException.class, () -> Input.open("no/such/input"));
+    }
+}
@@ -0,0 +1,97 @@
+package dev.gmathur.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class InstructionSetTest {
+    // The instructions found, as name:operands
+    private static InstructionSet<List<String>> recording(String[] names, int[] arities, int[] digits) {
+        var set = new InstructionSet<List<String>>();
+        for (int i = 0; i < names.length; i++) {
+            final String name = names[i];
+            final int arity = arities[i];
+            set.opcode(name, arity, digits[i], (found, operands) -> {
+                var sb = new StringBuilder(name).append(':');
+                for (int k = 0; k < arity; k++) { sb.append(operands[k]).append(k < arity - 1 ? "," : ""); }
+                found.add(sb.toString());
+            });
+        }
+        return set;
+    }
+
+    // The same instructions as a regex alternation
+    private static List<String> regex(String memory, String[] names, int[] arities, int[] digits) {
+        var alternatives = new ArrayList<String>();
+        for (int i = 0; i < names.length; i++) {
+            var operands = new ArrayList<String>();
+            for (int k = 0; k < arities[i]; k++) { operands.add("\\d{1," + digits[i] + "}"); }
+            alternatives.add("(?:" + Pattern.quote(names[i]) + "\\((" + String.join(",", operands) + ")\\))");
+        }
+        var matcher = Pattern.compile(String.join("|", alternatives)).matcher(memory);
+        var found = new ArrayList<String>();
+        while (matcher.find()) {
+            for (int i = 0; i < names.length; i++) {
+                if (matcher.group(i + 1) != null) {
+                    var operands = matcher.group(i + 1).split(",");
+                    var sb = new StringBuilder(names[i]).append(':');
+                    for (int k = 0; k < arities[i]; k++) {
+                        sb.append(Long.parseLong(operands[k])).append(k < arities[i] - 1 ? "," : "");
+                    }
+                    found.add(sb.toString());
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Test
+    void testMatchesRegexAlternation() {
+        String[] names = {"mul", "do", "don't", "abc", "b", "xor", "nop"};
+        int[] arities = {2, 0, 0, 3, 1, 2, 0};
+        int[] digits = {3, 0, 0, 2, 4, 1, 0};
+        var scanner = recording(names, arities, digits).compile();
+
+        String[] pieces = {"mul", "do", "don't", "abc", "ab", "b", "xor", "x", "nop", "no", "(", ")", ",", "1", "23",
+                "456", "7", "()", "m", "a", "'"};
+        var random = new SplittableRandom(5);
+        for (int t = 0; t < 2_000; t++) {
+            var sb = new StringBuilder();
+            int n = random.nextInt(1, 120);
+            for (int i = 0; i < n; i++) { sb.append(pieces[random.nextInt(pieces.length)]); }
+            var memory = sb.toString();
+            byte[] bytes = memory.getBytes(StandardCharsets.US_ASCII);
+
+            var expected = regex(memory, names, arities, digits);
+            assertEquals(expected, scanner.scan(ByteBuffer.wrap(bytes), new ArrayList<>()), memory);
+
+            // Fed in pieces that split the instructions
+            var cursor = scanner.cursor(new ArrayList<>());
+            for (int from = 0; from < bytes.length; ) {
+                int to = Math.min(bytes.length, from + random.nextInt(1, 6));
+                cursor.feed(ByteBuffer.wrap(bytes, from, to - from));
+                from = to;
+            }
+            assertEquals(expected, cursor.state(), memory);
+        }
+    }
+
+    @Test
+    void testInvalidOpcodes() {
+        InstructionSet.Effect<Object> none = (s, operands) -> { };
+        assertThrows(IllegalArgumentException.class, () -> new InstructionSet<>().opcode("mul", 2, 3, none)
+                .opcode("smul", 2, 3, none));
+        assertThrows(IllegalArgumentException.class, () -> new InstructionSet<>().opcode("a1", 0, 0, none));
+        assertThrows(IllegalArgumentException.class, () -> new InstructionSet<>().opcode("f", 1, 0, none));
+        assertThrows(IllegalArgumentException.class, () -> new InstructionSet<>().opcode("", 0, 0, none));
+        assertThrows(IllegalStateException.class, () -> new InstructionSet<>().compile());
+    }
+}
@@ -0,0 +1,32 @@
+package dev.gmathur.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntSortTest {
+    @Test
+    void testRadixSortMatchesArraysSort() {
+        var random = new Random(11);
+        for (int n : new int[]{0, 1, 2, 17, 1_000, 100_000}) {
+            int[] any = random.ints(n).toArray();
+            int[] small = random.ints(n, 10_000, 100_000).toArray();
+            int[] same = new int[n];
+            Arrays.fill(same, -5);
+
+            for (int[] a : new int[][]{any, small, same}) {
+                int[] expected = a.clone();
+                Arrays.sort(expected);
+                IntSort.radixSort(a);
+                assertArrayEquals(expected, a);
+            }
+        }
+
+        int[] extremes = {Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1, 1};
+        IntSort.sort(extremes);
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE}, extremes);
+    }
+}
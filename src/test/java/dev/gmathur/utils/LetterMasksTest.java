@@ -0,0 +1,106 @@
+package dev.gmathur.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class LetterMasksTest {
+    private static byte[][] grid(SplittableRandom random, int rows, int cols, String letters) {
+        byte[][] grid = new byte[rows][cols];
+        for (byte[] row : grid) {
+            for (int c = 0; c < cols; c++) { row[c] = (byte) letters.charAt(random.nextInt(letters.length())); }
+        }
+        return grid;
+    }
+
+    private static char at(byte[][] grid, int r, int c) {
+        return r < 0 || r >= grid.length || c < 0 || c >= grid[0].length ? 0 : (char) grid[r][c];
+    }
+
+    private static boolean reads(byte[][] grid, String word, int r, int c, int dr, int dc) {
+        for (int k = 0; k < word.length(); k++) {
+            if (at(grid, r + k * dr, c + k * dc) != word.charAt(k)) { return false; }
+        }
+        return true;
+    }
+
+    private static long count(byte[][] grid, String word) {
+        long count = 0;
+        for (int r = 0; r < grid.length; r++) {
+            for (int c = 0; c < grid[0].length; c++) {
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        if ((dr != 0 || dc != 0) && reads(grid, word, r, c, dr, dc)) { count++; }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long crosses(byte[][] grid, String word) {
+        int h = word.length() / 2;
+        String reversed = new StringBuilder(word).reverse().toString();
+        long count = 0;
+        for (int r = 0; r < grid.length; r++) {
+            for (int c = 0; c < grid[0].length; c++) {
+                boolean diagonal = reads(grid, word, r - h, c - h, 1, 1) || reads(grid, reversed, r - h, c - h, 1, 1);
+                boolean anti = reads(grid, word, r - h, c + h, 1, -1) || reads(grid, reversed, r - h, c + h, 1, -1);
+                if (diagonal && anti) { count++; }
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void testMatchesPerCellSearch() {
+        var random = new SplittableRandom(4);
+        // Widths around the 64 column words
+        int[][] sizes = {{1, 1}, {5, 3}, {7, 63}, {9, 64}, {8, 65}, {13, 130}, {70, 200}};
+        for (int[] size : sizes) {
+            byte[][] grid = grid(random, size[0], size[1], "XMASB");
+            var masks = new LetterMasks(grid, "XMASB");
+            for (String word : new String[]{"XMAS", "MAS", "A", "SAS", "BAMXAS", "MM"}) {
+                assertEquals(count(grid, word), masks.count(word), word + " in " + size[0] + "x" + size[1]);
+            }
+            for (String word : new String[]{"MAS", "SAS", "A", "XMASB"}) {
+                assertEquals(crosses(grid, word), masks.countCrosses(word), word + " in " + size[0] + "x" + size[1]);
+            }
+        }
+    }
+
+    @Test
+    void testBandsAddUpToTheGrid() {
+        var random = new SplittableRandom(21);
+        byte[][] grid = grid(random, 50, 70, "XMAS");
+        for (String word : new String[]{"XMASX", "MAS", "A"}) {
+            int halo = word.length() - 1;
+            long words = 0, crosses = 0;
+            for (int from = 0; from < grid.length; from += 7) {
+                int to = Math.min(grid.length, from + 7);
+                var band = new LetterMasks(grid, Math.max(0, from - halo), Math.min(grid.length, to + halo), "XMAS");
+                words += band.count(word, from, to);
+                crosses += band.countCrosses(word, from, to);
+            }
+            assertEquals(count(grid, word), words, word);
+            assertEquals(crosses(grid, word), crosses, word);
+        }
+        // Without a halo, the words across the band's edges aren't found
+        var band = new LetterMasks(grid, 10, 20, "XMAS");
+        assertEquals(10, band.firstRow());
+        assertEquals(10, band.rows());
+        assertEquals(count(Arrays.copyOfRange(grid, 10, 20), "XMAS"), band.count("XMAS"));
+        assertThrows(IllegalArgumentException.class, () -> new LetterMasks(grid, 10, 51, "XMAS"));
+    }
+
+    @Test
+    void testInvalidWords() {
+        var masks = new LetterMasks(new byte[][]{"XMAS".getBytes()}, "XMAS");
+        assertThrows(IllegalArgumentException.class, () -> masks.count("XMAZ"));
+        assertThrows(IllegalArgumentException.class, () -> masks.countCrosses("XM"));
+        assertEquals(1, masks.count("XMAS"));
+    }
+}
@@ -0,0 +1,94 @@
+package dev.gmathur.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongCollectionsTest {
+    @Test
+    void testLongSetMatchesHashSet() {
+        var set = new LongSet();
+        var expected = new HashSet<Long>();
+        var random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextInt(5_000) - 100L; // includes 0 and negative keys
+            assertEquals(expected.add(key), set.add(key));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long key = -200; key < 5_100; key++) { assertEquals(expected.contains(key), set.contains(key)); }
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+    }
+
+    @Test
+    void testLongLongMapMatchesHashMap() {
+        var map = new LongLongMap(4);
+        var expected = new HashMap<Long, Long>();
+        var random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long key = Coords.pack(random.nextInt(50), random.nextInt(50));
+            long value = random.nextLong();
+            map.put(key, value);
+            expected.put(key, value);
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((k, v) -> assertEquals(v, map.get(k, -1)));
+        assertEquals(-1, map.get(Coords.pack(50, 50), -1));
+
+        assertEquals(5, map.addTo(Coords.pack(60, 0), 5));
+        assertEquals(8, map.addTo(Coords.pack(60, 0), 3));
+        map.put(0, 11);
+        assertTrue(map.containsKey(0));
+        assertEquals(11, map.get(0, -1));
+    }
+
+    @Test
+    void testLongIntMap() {
+        var map = new LongIntMap();
+        for (int i = 0; i < 1_000; i++) { map.put(Coords.state(i, i & 3), i); }
+        assertEquals(1_000, map.size());
+        for (int i = 0; i < 1_000; i++) { assertEquals(i, map.get(Coords.state(i, i & 3), -1)); }
+        assertFalse(map.containsKey(Coords.state(1, 0)));
+
+        map.put(0, 7);
+        long[] sums = new long[2];
+        map.forEach((key, value) -> { sums[0] += key; sums[1] += value; });
+        long keys = 0;
+        for (int i = 0; i < 1_000; i++) { keys += Coords.state(i, i & 3); }
+        assertEquals(keys, sums[0]);
+        assertEquals(999 * 1_000 / 2 + 7, sums[1]);
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get(Coords.state(5, 1), -1));
+    }
+
+    @Test
+    void testLongHeapMatchesPriorityQueue() {
+        var heap = new LongHeap(1);
+        var expected = new PriorityQueue<Long>();
+        var random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                assertEquals(expected.peek(), heap.peek());
+                assertEquals(expected.poll(), heap.pop());
+            } else {
+                long value = random.nextLong(-1_000, 1_000); // with repeats
+                expected.add(value);
+                heap.push(value);
+            }
+            assertEquals(expected.size(), heap.size());
+        }
+        while (!expected.isEmpty()) { assertEquals(expected.poll(), heap.pop()); }
+        assertTrue(heap.isEmpty());
+        assertThrows(NoSuchElementException.class, heap::pop);
+    }
+}
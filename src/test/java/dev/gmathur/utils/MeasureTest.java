@@ -0,0 +1,60 @@
+package dev.gmathur.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeasureTest {
+    @Test
+    void testPercentile() {
+        long[] sorted = new long[100];
+        for (int i = 0; i < sorted.length; i++) { sorted[i] = i + 1; }
+        assertEquals(50, Measure.percentile(sorted, 50));
+        assertEquals(99, Measure.percentile(sorted, 99));
+        assertEquals(7, Measure.percentile(new long[]{7}, 99));
+    }
+
+    @Test
+    void testRunCountsWarmupAndIterations() {
+        int[] calls = new int[]{0};
+        var stats = Measure.run("count", 3, 5, () -> calls[0]++);
+        assertEquals(8, calls[0]);
+        assertEquals(5, stats.iterations());
+        assertTrue(stats.minNanos() <= stats.p50Nanos() && stats.p50Nanos() <= stats.p99Nanos());
+        assertTrue(stats.p99Nanos() <= stats.maxNanos());
+    }
+
+    @Test
+    void testAllocationIsReported() {
+        var stats = Measure.run("alloc", 0, 4, () -> {
+            byte[][] blocks = new byte[16][];
+            for (int i = 0; i < blocks.length; i++) { blocks[i] = new byte[64 * 1024]; }
+            assertNotNull(blocks[15]);
+        });
+        assertTrue(stats.allocatedBytes() >= 16 * 64 * 1024, "allocated: " + stats.allocatedBytes());
+    }
+
+    @Test
+    void testJsonRecord() {
+        var stats = new Measure.Stats("D1 \"Part\" 1", 0, 1, 1, 2, 3, 4, 2.5, 10, 0, 0);
+        assertEquals("{\"label\":\"D1 \\\"Part\\\" 1\",\"warmup\":0,\"iterations\":1,\"minNanos\":1," +
+                "\"p50Nanos\":2,\"p99Nanos\":3,\"maxNanos\":4,\"meanNanos\":2.5,\"allocatedBytes\":10," +
+                "\"gcCount\":0,\"gcMillis\":0}", stats.toJson());
+    }
+
+    @Test
+    void testRecordsIgnoreTheDefaultLocale() {
+        var stats = new Measure.Stats("D1", 0, 1, 1, 2, 3, 4, 1234.5, 10, 0, 0);
+        var locale = Locale.getDefault();
+        try {
+            // German writes decimal commas, which would break the JSON
+            Locale.setDefault(Locale.GERMANY);
+            assertTrue(stats.toJson().contains("\"meanNanos\":1234.5,"), stats.toJson());
+            assertTrue(stats.toString().contains("took: 0.001ms"), stats.toString());
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+}
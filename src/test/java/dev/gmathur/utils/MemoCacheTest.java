@@ -0,0 +1,99 @@
+package dev.gmathur.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoCacheTest {
+    @Test
+    void testMatchesHashMapWhenNothingIsEvicted() {
+        var cache = new MemoCache(10_000);
+        var expected = new HashMap<Long, Long>();
+        var random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(5_000) - 100L; // includes 0 and negative keys
+            long value = random.nextLong();
+            cache.put(key, value);
+            expected.put(key, value);
+        }
+        assertEquals(expected.size(), cache.size());
+        expected.forEach((k, v) -> assertEquals(v, cache.get(k, -1)));
+        assertEquals(-1, cache.get(10_000, -1));
+        assertEquals(expected.size(), cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    void testEvictsUnreferencedEntriesFirst() {
+        var cache = new MemoCache(64);
+        for (long key = 0; key < cache.maxSize(); key++) { cache.put(key, key * 10); }
+        assertEquals(cache.maxSize(), cache.size());
+
+        // Keep reading the even keys, so the clock passes over them and evicts the odd ones
+        for (long key = cache.maxSize(); key < cache.maxSize() + 16; key++) {
+            for (long even = 0; even < cache.maxSize(); even += 2) { assertEquals(even * 10, cache.get(even, -1)); }
+            cache.put(key, key * 10);
+        }
+        assertEquals(cache.maxSize(), cache.size());
+        assertEquals(16, cache.evictions());
+        for (long even = 0; even < cache.maxSize(); even += 2) { assertEquals(even * 10, cache.get(even, -1)); }
+
+        // Every key that is still cached has the right value after all the evictions
+        for (long key = 0; key < cache.maxSize() + 16; key++) {
+            long value = cache.get(key, -1);
+            assertTrue(value == -1 || value == key * 10);
+        }
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.hits());
+        assertEquals(-1, cache.get(0, -1));
+    }
+
+    @Test
+    void testReuseAfterClear() {
+        var cache = new MemoCache(1 << 12);
+        for (int round = 0; round < 50; round++) {
+            // A few entries, cleared entry by entry, and then enough to be cleared in bulk
+            int n = round % 2 == 0 ? 40 : cache.maxSize() / 2;
+            for (long key = 0; key < n; key++) { cache.put(key * 7919 + round, key); }
+            assertEquals(n, cache.size() + cache.evictions());
+            for (long key = 0; key < n; key++) {
+                long value = cache.get(key * 7919 + round, -1);
+                assertTrue(value == -1 || value == key);
+            }
+            assertEquals(n, cache.hits() + cache.evictions());
+            cache.clear();
+            assertEquals(0, cache.size());
+            for (long key = 0; key < n; key++) { assertEquals(-1, cache.get(key * 7919 + round, -1)); }
+        }
+    }
+
+    @Test
+    void testComputeIfAbsentFromManyThreads() throws Exception {
+        var cache = new MemoCache(1_000);
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (long key = 0; key < 50_000; key++) {
+                        long k = key % 3_000;
+                        assertEquals(k * k, cache.computeIfAbsent(k, x -> x * x));
+                    }
+                }));
+            }
+            for (var future : futures) { future.get(); }
+        }
+        assertTrue(cache.size() <= cache.maxSize());
+        assertTrue(cache.evictions() > 0);
+        assertEquals(200_000, cache.hits() + cache.misses());
+    }
+}
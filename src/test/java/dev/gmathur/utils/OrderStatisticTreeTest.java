@@ -0,0 +1,58 @@
+package dev.gmathur.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class OrderStatisticTreeTest {
+    @Test
+    void testRankAndSelect() {
+        var tree = new OrderStatisticTree();
+        var random = new SplittableRandom(13);
+        // Values across the whole int range, with repeats
+        int[] values = new int[20_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 3 == 0 && i > 0
+                    ? values[random.nextInt(i)]
+                    : random.nextInt(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        values[1] = Integer.MAX_VALUE;
+        values[2] = Integer.MIN_VALUE;
+        for (int v : values) { tree.add(v, 1); }
+        assertEquals(values.length, tree.size());
+
+        Arrays.sort(values);
+        for (int k = 0; k < values.length; k++) { assertEquals(values[k], tree.select(k)); }
+        for (int k = 0; k < values.length; k += 89) {
+            int v = values[k];
+            assertEquals(Arrays.stream(values).filter(x -> x <= v).count(), tree.rank(v));
+            assertEquals(Arrays.stream(values).filter(x -> x == v).count(), tree.count(v));
+        }
+        assertEquals(values.length, tree.rank(Integer.MAX_VALUE));
+        assertEquals(1, tree.rank(Integer.MIN_VALUE));
+
+        List<Integer> inOrder = new ArrayList<>();
+        tree.forEach((v, count) -> { for (int i = 0; i < count; i++) { inOrder.add(v); } });
+        assertEquals(Arrays.stream(values).boxed().toList(), inOrder);
+    }
+
+    @Test
+    void testRemove() {
+        var tree = new OrderStatisticTree();
+        tree.add(1 << 30, 3);
+        tree.add(2, 1);
+        tree.add(1 << 30, -3);
+        assertEquals(1, tree.size());
+        assertEquals(2, tree.select(0));
+        assertEquals(0, tree.count(1 << 30));
+        assertEquals(2, tree.distinct());
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(1));
+        assertThrows(IllegalArgumentException.class, () -> tree.add(2, -2));
+        assertThrows(IllegalArgumentException.class, () -> tree.add(7, -1));
+    }
+}
@@ -1,16 +1,55 @@
+import gzip
+import struct
 import pygame
 import time
 import sys
 import imageio
 
-def read_frames(filename):
-    with open(filename, 'r') as f:
-        content = f.read().strip()
+
+def read_varint(f):
+    value, shift = 0, 0
+    while True:
+        b = f.read(1)
+        if not b:
+            raise EOFError("Truncated varint")
+        value |= (b[0] & 0x7f) << shift
+        if not b[0] & 0x80:
+            return value
+        shift += 7
+
+
+def read_recorded_frames(f):
+    # The binary format written by dev.gmathur.utils.FrameRecorder, after the "AOCF" magic. See the Javadoc there.
+    version, rows, cols = struct.unpack('>BII', f.read(9))
+    if version != 1:
+        raise ValueError(f"Unsupported frame recording version {version}")
 
+    frames = []
+    cells = bytearray(rows * cols)
+    while True:
+        kind = f.read(1)
+        if not kind:
+            break
+        read_varint(f)  # tag, the move number
+        if kind == b'K':
+            cells = bytearray(f.read(rows * cols))
+        elif kind == b'D':
+            index = -1
+            for _ in range(read_varint(f)):
+                index += read_varint(f)
+                cells[index] = f.read(1)[0]
+        else:
+            raise ValueError(f"Invalid frame type {kind!r}")
+        frames.append([list(cells[r * cols:(r + 1) * cols].decode('ascii')) for r in range(rows)])
+    return frames
+
+
+def read_text_frames(content):
+    # The old text format, one grid per frame with a blank line between frames
     frames = []
     current_frame = []
 
-    for line in content.split('\n'):
+    for line in content.strip().split('\n'):
         if line.strip():
             current_frame.append(list(line))
         else:
@@ -24,6 +63,16 @@ def read_frames(filename):
     return frames
 
 
+def read_frames(filename):
+    with open(filename, 'rb') as f:
+        gzipped = f.read(2) == b'\x1f\x8b'
+    with (gzip.open(filename, 'rb') if gzipped else open(filename, 'rb')) as f:
+        if f.read(4) == b'AOCF':
+            return read_recorded_frames(f)
+        f.seek(0)
+        return read_text_frames(f.read().decode('ascii'))
+
+
 def draw_frame(screen, frame, cell_size, regular_font, bold_font, large_font, frame_index, header_height):
     colors = {
     '.': (50, 50, 50),      # Deep slate for empty spaces